@@ -0,0 +1,94 @@
+package com.sportsbook.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.model.entity.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures producing the body of {@code GET /event} for different numbers of events: serialising
+ * the whole list, and rebuilding the cache's prebuilt list after one event changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+
+  @Param({"10", "1000", "10000"})
+  public int events;
+
+  // Configured the same way as the ObjectMapper Spring Boot gives the endpoints
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private List<Event> eventList;
+
+  private EventCache eventCache;
+
+  private int changes;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+    eventList = new ArrayList<>(events);
+    for (int i = 0; i < events; i++) {
+      Event event = new Event();
+      event.setEventId(UUID.randomUUID());
+      event.setMatchTitle("The UEFA Champions League Final " + i);
+      event.setHomeTeamName("Bristol City");
+      event.setAwayTeamName("Bristol Rovers");
+      event.setHomeTeamScore(i % 7);
+      event.setAwayTeamScore(i % 3);
+      event.setScoreLastUpdatedTimestamp(kickOff.plusSeconds(i));
+      eventList.add(event);
+    }
+
+    InMemoryEventRepository table = new InMemoryEventRepository();
+    eventList.forEach(table::insert);
+    eventCache =
+        new EventCache(table.asRepository(), objectMapper, new SimpleMeterRegistry(), true);
+    eventCache.reload();
+  }
+
+  @Benchmark
+  public byte[] serialiseEventList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(eventList);
+  }
+
+  @Benchmark
+  public byte[] rebuildCachedListAfterChange() {
+    Event event = eventList.get(changes++ % events);
+    event.setHomeTeamScore(event.getHomeTeamScore() + 1);
+    eventCache.put(event);
+    return eventCache.findAllSerialized().getJson();
+  }
+
+  @Benchmark
+  public byte[] rebuildCachedGzipListAfterChange() {
+    Event event = eventList.get(changes++ % events);
+    event.setHomeTeamScore(event.getHomeTeamScore() + 1);
+    eventCache.put(event);
+    return eventCache.findAllSerialized().getGzip();
+  }
+}
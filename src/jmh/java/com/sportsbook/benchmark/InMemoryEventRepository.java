@@ -0,0 +1,91 @@
+package com.sportsbook.benchmark;
+
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventIds;
+import com.sportsbook.repository.EventRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Stands in for Postgres in the benchmarks. Only the repository methods the update and read paths
+ * call are implemented; like the database, every read hands back a detached copy.
+ */
+final class InMemoryEventRepository {
+
+  private final Map<UUID, Event> table = new ConcurrentHashMap<>();
+
+  UUID insert(Event event) {
+    UUID eventId = UUID.randomUUID();
+    event.setEventId(eventId);
+    table.put(eventId, event.copy());
+    return eventId;
+  }
+
+  Event get(UUID eventId) {
+    return table.get(eventId);
+  }
+
+  EventRepository asRepository() {
+    return (EventRepository)
+        Proxy.newProxyInstance(
+            EventRepository.class.getClassLoader(),
+            new Class<?>[] {EventRepository.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "findById":
+                  return Optional.ofNullable(table.get((UUID) args[0])).map(Event::copy);
+                case "findAllById":
+                  return findAllById((Iterable<?>) args[0]);
+                case "save":
+                case "saveAndFlush":
+                  return save((Event) args[0]);
+                case "saveAll":
+                  ((Iterable<?>) args[0]).forEach(event -> save((Event) event));
+                  return args[0];
+                case "forEachEvent":
+                  forEachEvent((Consumer<?>) args[0]);
+                  return null;
+                case "hashCode":
+                  return System.identityHashCode(proxy);
+                case "equals":
+                  return proxy == args[0];
+                case "toString":
+                  return InMemoryEventRepository.class.getSimpleName();
+                default:
+                  throw new UnsupportedOperationException(method.getName());
+              }
+            });
+  }
+
+  private List<Event> findAllById(Iterable<?> eventIds) {
+    List<Event> events = new ArrayList<>();
+    for (Object eventId : eventIds) {
+      Event event = table.get((UUID) eventId);
+      if (event != null) {
+        events.add(event.copy());
+      }
+    }
+    return events;
+  }
+
+  private Event save(Event event) {
+    table.put(event.getEventId(), event.copy());
+    return event;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void forEachEvent(Consumer<?> action) {
+    table.values().stream()
+        .sorted(Comparator.comparing(Event::getEventId, EventIds.DATABASE_ORDER))
+        .map(Event::copy)
+        .forEach((Consumer<Event>) action);
+  }
+}
@@ -0,0 +1,21 @@
+package com.sportsbook.benchmark;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+// The in-memory repository has nothing to commit, so transactions only cost what the template does
+final class NoOpTransactionManager implements PlatformTransactionManager {
+
+  @Override
+  public TransactionStatus getTransaction(TransactionDefinition definition) {
+    return new SimpleTransactionStatus();
+  }
+
+  @Override
+  public void commit(TransactionStatus status) {}
+
+  @Override
+  public void rollback(TransactionStatus status) {}
+}
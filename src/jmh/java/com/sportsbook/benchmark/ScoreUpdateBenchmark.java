@@ -0,0 +1,155 @@
+package com.sportsbook.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.change.EventChangePublisher;
+import com.sportsbook.endpoint.EventEndpoint;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.service.EventLocks;
+import com.sportsbook.service.ScoreService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures {@link EventEndpoint#updateScore} against the in-memory repository, with every thread
+ * updating the same event or each thread updating its own.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreUpdateBenchmark {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  @State(Scope.Benchmark)
+  public static class Scoreboard {
+
+    @Param({"SAME_EVENT", "DISTINCT_EVENTS"})
+    public Contention contention;
+
+    private final InMemoryEventRepository table = new InMemoryEventRepository();
+    private final List<UUID> eventIds = new ArrayList<>();
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    private UUID staleEventId;
+    private EventEndpoint endpoint;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      for (int i = 0; i < Runtime.getRuntime().availableProcessors() * 4; i++) {
+        eventIds.add(table.insert(new Event()));
+      }
+
+      Event finished = new Event();
+      finished.setScoreLastUpdatedTimestamp(KICK_OFF.plusYears(100));
+      staleEventId = table.insert(finished);
+
+      ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+      EventCache eventCache =
+          new EventCache(table.asRepository(), objectMapper, new SimpleMeterRegistry(), true);
+      eventCache.reload();
+      EventChangePublisher eventChanges = new EventChangePublisher(eventCache, event -> {});
+      endpoint =
+          new EventEndpoint(
+              table.asRepository(),
+              // Only reads of unknown ids go to the archive, and the benchmark makes none
+              null,
+              eventCache,
+              eventChanges,
+              new ScoreService(
+                  table.asRepository(),
+                  new EventLocks(),
+                  eventChanges,
+                  new NoOpTransactionManager(),
+                  Optional.empty(),
+                  Optional.empty(),
+                  new SimpleMeterRegistry(),
+                  false),
+              objectMapper);
+    }
+
+    private UUID eventFor(int thread) {
+      return contention == Contention.SAME_EVENT
+          ? eventIds.get(0)
+          : eventIds.get(thread % eventIds.size());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Feed {
+
+    private UUID eventId;
+    private UpdateScore fresh;
+    private UpdateScore stale;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setUp(Scoreboard scoreboard) {
+      eventId = scoreboard.eventFor(scoreboard.nextThread.getAndIncrement());
+      fresh = new UpdateScore();
+      stale = new UpdateScore();
+      stale.setScoreValidAtTimestamp(KICK_OFF);
+    }
+
+    // Threads sharing an event race each other, so some of their updates arrive stale
+    private UpdateScore next() {
+      tick++;
+      fresh.setHomeTeamScore((int) tick);
+      fresh.setScoreValidAtTimestamp(KICK_OFF.plusNanos(tick * 1000));
+      return fresh;
+    }
+  }
+
+  public enum Contention {
+    SAME_EVENT,
+    DISTINCT_EVENTS
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void updateScoreOneThread(Scoreboard scoreboard, Feed feed) {
+    scoreboard.endpoint.updateScore(feed.eventId, feed.next());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void updateScoreFourThreads(Scoreboard scoreboard, Feed feed) {
+    scoreboard.endpoint.updateScore(feed.eventId, feed.next());
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void updateScoreAllCores(Scoreboard scoreboard, Feed feed) {
+    scoreboard.endpoint.updateScore(feed.eventId, feed.next());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void rejectStaleUpdate(Scoreboard scoreboard, Feed feed) {
+    scoreboard.endpoint.updateScore(scoreboard.staleEventId, feed.stale);
+  }
+}
@@ -0,0 +1,101 @@
+package com.sportsbook.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sportsbook.codec.ScoreUpdateCodec;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.UpdateScore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning a request body into score updates, as JSON and in the binary format, for one
+ * update and for a full batch. Run with {@code -prof gc} to compare the allocation per operation as
+ * well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScoreUpdateParseBenchmark {
+
+  // The largest batch PUT /event/scores accepts
+  private static final int BATCH_SIZE = 1000;
+
+  // Configured the same way as the ObjectMapper Spring Boot gives the endpoints
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private final ObjectReader scoreUpdateReader = objectMapper.readerFor(UpdateScore.class);
+
+  private final ObjectReader eventScoreUpdatesReader =
+      objectMapper.readerFor(new TypeReference<List<EventScoreUpdate>>() {});
+
+  private byte[] scoreUpdateJson;
+  private byte[] scoreUpdateBinary;
+  private byte[] eventScoreUpdatesJson;
+  private byte[] eventScoreUpdatesBinary;
+
+  @Setup
+  public void setUp() throws IOException {
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0, 0, 123_456_000);
+    List<EventScoreUpdate> updates = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      EventScoreUpdate update = new EventScoreUpdate();
+      update.setEventId(UUID.randomUUID());
+      update.setHomeTeamScore(i % 7);
+      update.setAwayTeamScore(i % 3);
+      update.setScoreValidAtTimestamp(kickOff.plusSeconds(i));
+      updates.add(update);
+    }
+
+    UpdateScore scoreUpdate = new UpdateScore();
+    scoreUpdate.setHomeTeamScore(3);
+    scoreUpdate.setAwayTeamScore(2);
+    scoreUpdate.setScoreValidAtTimestamp(kickOff);
+
+    scoreUpdateJson = objectMapper.writeValueAsBytes(scoreUpdate);
+    scoreUpdateBinary = ScoreUpdateCodec.encode(scoreUpdate);
+    eventScoreUpdatesJson = objectMapper.writeValueAsBytes(updates);
+    eventScoreUpdatesBinary = ScoreUpdateCodec.encode(updates);
+  }
+
+  @Benchmark
+  public UpdateScore parseScoreUpdateJson() throws IOException {
+    return scoreUpdateReader.readValue(scoreUpdateJson);
+  }
+
+  @Benchmark
+  public UpdateScore parseScoreUpdateBinary() {
+    return ScoreUpdateCodec.decodeScoreUpdate(ByteBuffer.wrap(scoreUpdateBinary));
+  }
+
+  @Benchmark
+  public List<EventScoreUpdate> parseEventScoreUpdatesJson() throws IOException {
+    return eventScoreUpdatesReader.readValue(eventScoreUpdatesJson);
+  }
+
+  @Benchmark
+  public List<EventScoreUpdate> parseEventScoreUpdatesBinary() {
+    return ScoreUpdateCodec.decodeEventScoreUpdates(ByteBuffer.wrap(eventScoreUpdatesBinary));
+  }
+}
@@ -0,0 +1,72 @@
+package com.sportsbook.loadtest;
+
+import com.sportsbook.Application;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Overloads score updates to one event, first with no admission control and then with it, on the
+ * same machine. Without it every update is queued and p99 grows with how long the overload lasts;
+ * with it the excess is turned away with {@code 429} and p99 stays a fraction of that.
+ */
+public class AdmissionControlOverloadLoadIT {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(AdmissionControlOverloadLoadIT.class);
+
+  @Test
+  void testP99StaysBoundedUnderOverload() throws Exception {
+    Overload.Settings settings = Overload.Settings.fromSystemProperties();
+
+    Overload.Report unprotected = run(settings, "--scoreboard.admission.enabled=false");
+    Overload.Report protectedByAdmission =
+        run(
+            settings,
+            "--scoreboard.admission.enabled=true",
+            "--scoreboard.admission.writes.max-concurrent=4",
+            "--scoreboard.admission.writes.max-queued=16",
+            "--scoreboard.admission.writes.queue-timeout=50ms");
+
+    LOGGER.info(
+        "{} with {}:{}without admission control {}{}with admission control {}",
+        getClass().getSimpleName(),
+        settings,
+        System.lineSeparator(),
+        unprotected,
+        System.lineSeparator(),
+        protectedByAdmission);
+    assertThat(unprotected.getErrors()).isZero();
+    assertThat(unprotected.getRejected()).isZero();
+    assertThat(protectedByAdmission.getErrors()).isZero();
+    assertThat(protectedByAdmission.getOk()).isPositive();
+    assertThat(protectedByAdmission.getRejected()).isPositive();
+    assertThat(protectedByAdmission.getRejectedWithoutRetryAfter()).isZero();
+    assertThat(protectedByAdmission.getP99Millis()).isLessThan(unprotected.getP99Millis() / 3);
+  }
+
+  private static Overload.Report run(Overload.Settings settings, String... properties)
+      throws Exception {
+    List<String> args = new ArrayList<>(List.of(properties));
+    args.add("--spring.profiles.active=test");
+    args.add("--server.port=0");
+    args.add("--management.server.port=0");
+    args.add("--scoreboard.history.enabled=false");
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(Application.class).run(args.toArray(new String[0]))) {
+      UUID eventId = context.getBean(EventRepository.class).saveAndFlush(new Event()).getEventId();
+      int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+      return new Overload("localhost", port, settings).run(eventId);
+    }
+  }
+}
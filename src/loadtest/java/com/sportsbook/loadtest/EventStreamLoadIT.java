@@ -0,0 +1,141 @@
+package com.sportsbook.loadtest;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.change.EventChangeBroadcaster;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Holds open as many concurrent SSE subscriptions as {@code loadtest.stream-subscribers} asks for
+ * (2000 by default), then checks that a single score update reaches every one of them.
+ * Raise the number to find the limit of a node; it is usually the process's file descriptor limit.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "scoreboard.stream.max-subscribers=100000")
+@ActiveProfiles("test")
+public class EventStreamLoadIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventStreamLoadIT.class);
+
+  private static final int SUBSCRIBERS =
+      Integer.getInteger("loadtest.stream-subscribers", 2000);
+
+  @Autowired private EventRepository eventRepository;
+
+  @Autowired private EventCache eventCache;
+
+  @Autowired private EventChangeBroadcaster eventChangeBroadcaster;
+
+  @LocalServerPort private int port;
+
+  @BeforeEach
+  public void setUp() {
+    eventRepository.deleteAllInBatch();
+    eventCache.reload();
+  }
+
+  @Test
+  void testManySubscribersReceiveScoreUpdate() throws Exception {
+    UUID testEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+
+    HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    CountDownLatch received = new CountDownLatch(SUBSCRIBERS);
+    List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+    String streamUrl = String.format("http://localhost:%d/event/%s/stream", port, testEventId);
+
+    for (int i = 0; i < SUBSCRIBERS; i++) {
+      HttpRequest request =
+          HttpRequest.newBuilder(URI.create(streamUrl))
+              .header("Accept", "text/event-stream")
+              .build();
+      responses.add(
+          httpClient.sendAsync(
+              request, HttpResponse.BodyHandlers.fromLineSubscriber(new ScoreLines(received))));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+    while (eventChangeBroadcaster.subscriberCount() < SUBSCRIBERS && System.nanoTime() < deadline) {
+      Thread.sleep(100);
+    }
+    assertThat(eventChangeBroadcaster.subscriberCount()).isEqualTo(SUBSCRIBERS);
+
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(1);
+    updateScore.setScoreValidAtTimestamp(LocalDateTime.now());
+    String updateUrl = String.format("http://localhost:%d/event/%s", port, testEventId);
+
+    long start = System.nanoTime();
+    new TestRestTemplate()
+        .exchange(updateUrl, HttpMethod.PUT, new HttpEntity<>(updateScore), Void.class);
+    assertThat(received.await(60, TimeUnit.SECONDS)).isTrue();
+    long fanOutMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    Runtime runtime = Runtime.getRuntime();
+    LOGGER.info(
+        "{} concurrent stream subscribers held; update reached all of them in {} ms; heap used {} MB",
+        SUBSCRIBERS,
+        fanOutMillis,
+        (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+
+    responses.forEach(response -> response.cancel(true));
+  }
+
+  private static final class ScoreLines implements Flow.Subscriber<String> {
+
+    private final CountDownLatch received;
+
+    private ScoreLines(CountDownLatch received) {
+      this.received = received;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(String line) {
+      if (line.equals("event:score")) {
+        received.countDown();
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {}
+
+    @Override
+    public void onComplete() {}
+  }
+}
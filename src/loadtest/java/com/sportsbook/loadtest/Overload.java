@@ -0,0 +1,257 @@
+package com.sportsbook.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds how many score updates a second one event takes with a few clients sending back to back,
+ * then offers several times that rate for a while and reports what happened to it.
+ *
+ * <p>Overload requests are sent on a fixed schedule whether or not earlier ones have been answered,
+ * and each latency is measured from when its request was due, so a stalled server shows up as the
+ * queueing delay clients would really see.
+ */
+public class Overload {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  private final String baseUrl;
+  private final Settings settings;
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final AtomicLong sequence = new AtomicLong();
+
+  public Overload(String host, int port, Settings settings) {
+    this.baseUrl = String.format("http://%s:%d", host, port);
+    this.settings = settings;
+  }
+
+  public Report run(UUID eventId) throws Exception {
+    Report report = new Report();
+    // Warm the JIT and pool first, so the capacity found is what a warm server manages
+    sendBackToBack(eventId, settings.warmupSeconds);
+    measureCapacity(eventId, report);
+    overload(eventId, report);
+    return report;
+  }
+
+  private void measureCapacity(UUID eventId, Report report) throws Exception {
+    Recorder latency = new Recorder(3);
+    long completed = sendBackToBack(eventId, settings.capacitySeconds, latency);
+    report.capacity = completed / (double) settings.capacitySeconds;
+    report.capacityLatency = latency.getIntervalHistogram();
+  }
+
+  private long sendBackToBack(UUID eventId, int seconds) throws Exception {
+    return sendBackToBack(eventId, seconds, new Recorder(3));
+  }
+
+  // Returns how many updates were accepted
+  private long sendBackToBack(UUID eventId, int seconds, Recorder latency) throws Exception {
+    AtomicLong completed = new AtomicLong();
+    long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    try (ExecutorService clients = Executors.newFixedThreadPool(settings.capacityClients)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < settings.capacityClients; i++) {
+        futures.add(
+            clients.submit(
+                () -> {
+                  while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response =
+                        httpClient.send(update(eventId), HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                      latency.recordValue(System.nanoTime() - start);
+                      completed.incrementAndGet();
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    return completed.get();
+  }
+
+  private void overload(UUID eventId, Report report) throws Exception {
+    Recorder accepted = new Recorder(3);
+    Recorder all = new Recorder(3);
+    AtomicLong ok = new AtomicLong();
+    AtomicLong rejected = new AtomicLong();
+    AtomicLong rejectedWithoutRetryAfter = new AtomicLong();
+    AtomicLong errors = new AtomicLong();
+
+    report.offered = report.capacity * settings.factor;
+    long intervalNanos = (long) (1e9 / report.offered);
+    long requests = (long) (report.offered * settings.overloadSeconds);
+    List<CompletableFuture<?>> responses = new ArrayList<>();
+    long start = System.nanoTime();
+    for (long i = 0; i < requests; i++) {
+      long due = start + i * intervalNanos;
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+      responses.add(
+          httpClient
+              .sendAsync(update(eventId), HttpResponse.BodyHandlers.discarding())
+              .whenComplete(
+                  (response, failure) -> {
+                    long latency = System.nanoTime() - due;
+                    all.recordValue(latency);
+                    if (failure != null) {
+                      errors.incrementAndGet();
+                    } else if (response.statusCode() == 200) {
+                      accepted.recordValue(latency);
+                      ok.incrementAndGet();
+                    } else if (response.statusCode() == 503 || response.statusCode() == 429) {
+                      rejected.incrementAndGet();
+                      if (response.headers().firstValue("Retry-After").isEmpty()) {
+                        rejectedWithoutRetryAfter.incrementAndGet();
+                      }
+                    } else {
+                      errors.incrementAndGet();
+                    }
+                  }));
+    }
+    for (CompletableFuture<?> response : responses) {
+      try {
+        response.join();
+      } catch (RuntimeException e) {
+        // Counted as an error when it completed
+      }
+    }
+
+    report.sent = requests;
+    report.ok = ok.get();
+    report.rejected = rejected.get();
+    report.rejectedWithoutRetryAfter = rejectedWithoutRetryAfter.get();
+    report.errors = errors.get();
+    report.acceptedLatency = accepted.getIntervalHistogram();
+    report.latency = all.getIntervalHistogram();
+  }
+
+  private HttpRequest update(UUID eventId) {
+    String body =
+        String.format(
+            "{\"homeTeamScore\":1,\"awayTeamScore\":0,\"scoreValidAtTimestamp\":\"%s\"}",
+            KICK_OFF.plusNanos(sequence.incrementAndGet() * 1_000));
+    return HttpRequest.newBuilder(URI.create(baseUrl + "/event/" + eventId))
+        .timeout(TIMEOUT)
+        .header("Content-Type", "application/json")
+        .PUT(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  /** How hard to push, read from {@code loadtest.*} properties. */
+  public static final class Settings {
+
+    private int warmupSeconds = 5;
+    private int capacityClients = 4;
+    private int capacitySeconds = 3;
+    private double factor = 5;
+    private int overloadSeconds = 5;
+
+    public static Settings fromSystemProperties() {
+      Settings settings = new Settings();
+      settings.warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", settings.warmupSeconds);
+      settings.capacityClients =
+          Integer.getInteger("loadtest.capacity-clients", settings.capacityClients);
+      settings.capacitySeconds =
+          Integer.getInteger("loadtest.capacity-seconds", settings.capacitySeconds);
+      settings.factor =
+          Double.parseDouble(
+              System.getProperty("loadtest.overload-factor", Double.toString(settings.factor)));
+      settings.overloadSeconds =
+          Integer.getInteger("loadtest.overload-seconds", settings.overloadSeconds);
+      return settings;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d s warm-up, capacity from %d clients over %d s, then %.1fx that for %d s",
+          warmupSeconds, capacityClients, capacitySeconds, factor, overloadSeconds);
+    }
+  }
+
+  public static final class Report {
+
+    private double capacity;
+    private Histogram capacityLatency;
+    private double offered;
+    private long sent;
+    private long ok;
+    private long rejected;
+    private long rejectedWithoutRetryAfter;
+    private long errors;
+    private Histogram acceptedLatency;
+    private Histogram latency;
+
+    public long getOk() {
+      return ok;
+    }
+
+    public long getRejected() {
+      return rejected;
+    }
+
+    public long getRejectedWithoutRetryAfter() {
+      return rejectedWithoutRetryAfter;
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+
+    /** p99 of every overload response, accepted or not, in milliseconds. */
+    public double getP99Millis() {
+      return latency.getValueAtPercentile(99) / 1e6;
+    }
+
+    public double getCapacityP99Millis() {
+      return capacityLatency.getValueAtPercentile(99) / 1e6;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "capacity %.0f updates/s  p99 %.2f ms%n"
+              + "  offered %.0f/s: %d sent, %d ok, %d rejected, %d errors%n"
+              + "  all       p50 %.2f ms  p99 %.2f ms  max %.2f ms%n"
+              + "  accepted  p50 %.2f ms  p99 %.2f ms  max %.2f ms",
+          capacity,
+          getCapacityP99Millis(),
+          offered,
+          sent,
+          ok,
+          rejected,
+          errors,
+          latency.getValueAtPercentile(50) / 1e6,
+          getP99Millis(),
+          latency.getMaxValue() / 1e6,
+          acceptedLatency.getValueAtPercentile(50) / 1e6,
+          acceptedLatency.getValueAtPercentile(99) / 1e6,
+          acceptedLatency.getMaxValue() / 1e6);
+    }
+  }
+}
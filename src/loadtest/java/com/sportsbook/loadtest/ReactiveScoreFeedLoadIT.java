@@ -0,0 +1,14 @@
+package com.sportsbook.loadtest;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the same feed as {@link ScoreFeedLoadIT} against the WebFlux and R2DBC stack, so the two
+ * reports can be compared side by side.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({"reactive", "test"})
+public class ReactiveScoreFeedLoadIT extends ScoreFeedLoadIT {}
@@ -0,0 +1,349 @@
+package com.sportsbook.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic score feed. Creates events through the API, then sends every event a run of score
+ * updates, shuffled across all events and sent from many threads at once so they arrive out of
+ * order, mixed with polling GETs. Once the feed is drained, it checks every event holds the score
+ * with the newest timestamp it was sent.
+ *
+ * <p>Runs against any instance of the API: {@code ScoreFeedLoadIT} points it at one it starts
+ * itself, and {@link #main(String[])} at one given by {@code loadtest.base-url}.
+ */
+public class ScoreFeed {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  private final String baseUrl;
+  private final Settings settings;
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+
+  public ScoreFeed(String baseUrl, Settings settings) {
+    this.baseUrl = baseUrl;
+    this.settings = settings;
+    this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    this.objectMapper =
+        new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    Report report = new ScoreFeed(baseUrl, Settings.fromSystemProperties()).run();
+    System.out.println(report);
+    if (!report.passed()) {
+      System.exit(1);
+    }
+  }
+
+  public Report run() throws Exception {
+    List<UUID> eventIds = createEvents();
+    List<Update> feed = generateFeed(eventIds);
+
+    // Warm up on a separate set of events so the measured run starts with a warm JIT and pool
+    if (settings.warmupUpdates > 0) {
+      List<Update> warmup = generateFeed(createEvents());
+      drive(warmup.subList(0, Math.min(settings.warmupUpdates, warmup.size())), eventIds);
+    }
+
+    Report report = drive(feed, eventIds);
+    report.mismatches = verify(feed);
+    return report;
+  }
+
+  private List<UUID> createEvents() throws IOException, InterruptedException {
+    String prefix = "loadtest-" + UUID.randomUUID() + "-";
+    for (int i = 0; i < settings.events; i++) {
+      NewEvent newEvent = new NewEvent();
+      newEvent.setMatchTitle(prefix + i);
+      newEvent.setHomeTeamName("Home " + i);
+      newEvent.setAwayTeamName("Away " + i);
+      HttpResponse<String> response = send(post("/event", newEvent));
+      if (response.statusCode() != 201) {
+        throw new IllegalStateException("Could not create event: " + response.statusCode());
+      }
+    }
+
+    List<UUID> eventIds = new ArrayList<>();
+    for (Event event : readAllEvents()) {
+      if (event.getMatchTitle() != null && event.getMatchTitle().startsWith(prefix)) {
+        eventIds.add(event.getEventId());
+      }
+    }
+    return eventIds;
+  }
+
+  // Every update for an event has a different timestamp, so exactly one of them is the newest
+  private List<Update> generateFeed(List<UUID> eventIds) {
+    List<Update> feed = new ArrayList<>(eventIds.size() * settings.updatesPerEvent);
+    for (UUID eventId : eventIds) {
+      for (int i = 0; i < settings.updatesPerEvent; i++) {
+        UpdateScore updateScore = new UpdateScore();
+        updateScore.setHomeTeamScore(i);
+        updateScore.setAwayTeamScore(settings.updatesPerEvent - i);
+        updateScore.setScoreValidAtTimestamp(KICK_OFF.plusSeconds(i));
+        feed.add(new Update(eventId, updateScore));
+      }
+    }
+    Collections.shuffle(feed, new Random(settings.seed));
+    return feed;
+  }
+
+  private Report drive(List<Update> feed, List<UUID> eventIds) throws Exception {
+    Recorder putLatency = new Recorder(3);
+    Recorder getLatency = new Recorder(3);
+    AtomicInteger next = new AtomicInteger();
+    AtomicLong gets = new AtomicLong();
+    AtomicLong errors = new AtomicLong();
+
+    ExecutorService workers = Executors.newFixedThreadPool(settings.threads);
+    long start = System.nanoTime();
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < settings.threads; t++) {
+        Random random = new Random(settings.seed + t);
+        futures.add(
+            workers.submit(
+                () -> {
+                  int index;
+                  while ((index = next.getAndIncrement()) < feed.size()) {
+                    Update update = feed.get(index);
+                    timed(putLatency, errors, put(update));
+
+                    while (random.nextDouble() < settings.getRatio) {
+                      gets.incrementAndGet();
+                      UUID polled = eventIds.get(random.nextInt(eventIds.size()));
+                      timed(getLatency, errors, pollRequest(random, polled));
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+
+    Report report = new Report();
+    report.seconds = (System.nanoTime() - start) / 1e9;
+    report.puts = feed.size();
+    report.gets = gets.get();
+    report.errors = errors.get();
+    report.putLatency = putLatency.getIntervalHistogram();
+    report.getLatency = getLatency.getIntervalHistogram();
+    return report;
+  }
+
+  private HttpRequest pollRequest(Random random, UUID eventId) {
+    return random.nextDouble() < settings.getAllRatio ? get("/event") : get("/event/" + eventId);
+  }
+
+  private void timed(Recorder latency, AtomicLong errors, HttpRequest request) {
+    long start = System.nanoTime();
+    try {
+      HttpResponse<String> response = send(request);
+      if (response.statusCode() != 200) {
+        errors.incrementAndGet();
+      }
+    } catch (IOException e) {
+      errors.incrementAndGet();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+    latency.recordValue(System.nanoTime() - start);
+  }
+
+  private int verify(List<Update> feed) throws IOException, InterruptedException {
+    Map<UUID, UpdateScore> newest = new HashMap<>();
+    for (Update update : feed) {
+      newest.merge(
+          update.eventId,
+          update.updateScore,
+          (a, b) -> a.getScoreValidAtTimestamp().isAfter(b.getScoreValidAtTimestamp()) ? a : b);
+    }
+
+    int mismatches = 0;
+    for (Map.Entry<UUID, UpdateScore> expected : newest.entrySet()) {
+      HttpResponse<String> response = send(get("/event/" + expected.getKey()));
+      Event actual = objectMapper.readValue(response.body(), Event.class);
+      if (actual.getHomeTeamScore() != expected.getValue().getHomeTeamScore()
+          || actual.getAwayTeamScore() != expected.getValue().getAwayTeamScore()
+          || !expected
+              .getValue()
+              .getScoreValidAtTimestamp()
+              .equals(actual.getScoreLastUpdatedTimestamp())) {
+        mismatches++;
+      }
+    }
+    return mismatches;
+  }
+
+  private List<Event> readAllEvents() throws IOException, InterruptedException {
+    HttpResponse<String> response = send(get("/event?stream=true"));
+    return Arrays.asList(objectMapper.readValue(response.body(), Event[].class));
+  }
+
+  private HttpRequest put(Update update) {
+    try {
+      byte[] body = objectMapper.writeValueAsBytes(update.updateScore);
+      return HttpRequest.newBuilder(URI.create(baseUrl + "/event/" + update.eventId))
+          .header("Content-Type", "application/json")
+          .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+          .build();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private HttpRequest post(String path, Object body) throws IOException {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+        .build();
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+  }
+
+  private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+    return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static final class Update {
+
+    private final UUID eventId;
+    private final UpdateScore updateScore;
+
+    private Update(UUID eventId, UpdateScore updateScore) {
+      this.eventId = eventId;
+      this.updateScore = updateScore;
+    }
+  }
+
+  /** How big a feed to generate and how to send it, read from {@code loadtest.*} properties. */
+  public static final class Settings {
+
+    private int events = 200;
+    private int updatesPerEvent = 50;
+    private int threads = 32;
+    private int warmupUpdates = 2000;
+    // Share of all requests that are GETs, and share of those that read every event
+    private double getRatio = 0.5;
+    private double getAllRatio = 0.05;
+    private long seed = 42;
+
+    public static Settings fromSystemProperties() {
+      Settings settings = new Settings();
+      settings.events = Integer.getInteger("loadtest.events", settings.events);
+      settings.updatesPerEvent =
+          Integer.getInteger("loadtest.updates-per-event", settings.updatesPerEvent);
+      settings.threads = Integer.getInteger("loadtest.threads", settings.threads);
+      settings.warmupUpdates = Integer.getInteger("loadtest.warmup-updates", settings.warmupUpdates);
+      settings.getRatio =
+          Double.parseDouble(
+              System.getProperty("loadtest.get-ratio", Double.toString(settings.getRatio)));
+      settings.getAllRatio =
+          Double.parseDouble(
+              System.getProperty("loadtest.get-all-ratio", Double.toString(settings.getAllRatio)));
+      settings.seed = Long.getLong("loadtest.seed", settings.seed);
+      if (settings.getRatio >= 1) {
+        throw new IllegalArgumentException("loadtest.get-ratio must be less than 1");
+      }
+      return settings;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d events x %d updates, %d threads, get-ratio %.2f, get-all-ratio %.2f, seed %d",
+          events, updatesPerEvent, threads, getRatio, getAllRatio, seed);
+    }
+  }
+
+  public static final class Report {
+
+    private double seconds;
+    private long puts;
+    private long gets;
+    private long errors;
+    private int mismatches;
+    private Histogram putLatency;
+    private Histogram getLatency;
+
+    public boolean passed() {
+      return errors == 0 && mismatches == 0;
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+
+    public int getMismatches() {
+      return mismatches;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d PUTs and %d GETs in %.1f s%n"
+              + "  PUT %8.0f/s  %s%n"
+              + "  GET %8.0f/s  %s%n"
+              + "  %d errors, %d events without their newest score",
+          puts,
+          gets,
+          seconds,
+          puts / seconds,
+          percentiles(putLatency),
+          gets / seconds,
+          percentiles(getLatency),
+          errors,
+          mismatches);
+    }
+
+    private static String percentiles(Histogram latency) {
+      if (latency.getTotalCount() == 0) {
+        return "-";
+      }
+      return String.format(
+          "p50 %.2f ms  p99 %.2f ms  p999 %.2f ms",
+          latency.getValueAtPercentile(50) / 1e6,
+          latency.getValueAtPercentile(99) / 1e6,
+          latency.getValueAtPercentile(99.9) / 1e6);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.sportsbook.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the synthetic score feed against the API over HTTP, backed by the Postgres that
+ * docker-compose starts. Throughput and latency are logged rather than asserted, as they depend on
+ * the machine; the feed has to finish without errors and leave every event on its newest score.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ScoreFeedLoadIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ScoreFeedLoadIT.class);
+
+  @LocalServerPort private int port;
+
+  @Test
+  void testScoreFeed() throws Exception {
+    ScoreFeed.Settings settings = ScoreFeed.Settings.fromSystemProperties();
+
+    ScoreFeed.Report report =
+        new ScoreFeed(String.format("http://localhost:%d", port), settings).run();
+
+    LOGGER.info(
+        "{} score feed of {}:{}{}",
+        getClass().getSimpleName(),
+        settings,
+        System.lineSeparator(),
+        report);
+    assertThat(report.getErrors()).isZero();
+    assertThat(report.getMismatches()).isZero();
+  }
+}
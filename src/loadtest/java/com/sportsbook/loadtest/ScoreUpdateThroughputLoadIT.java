@@ -0,0 +1,116 @@
+package com.sportsbook.loadtest;
+
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares applying the same score updates one PUT at a time with applying them through the batch
+ * endpoint. The numbers are logged rather than asserted, as they depend on the machine.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ScoreUpdateThroughputLoadIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ScoreUpdateThroughputLoadIT.class);
+
+  private static final int EVENTS = 100;
+  private static final int UPDATES_PER_EVENT = 20;
+  private static final int BATCH_SIZE = 500;
+
+  @Autowired private EventRepository eventRepository;
+
+  @LocalServerPort private int port;
+
+  private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+  private final List<UUID> testEventIds = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() {
+    eventRepository.deleteAllInBatch();
+    testEventIds.clear();
+    for (int i = 0; i < EVENTS; i++) {
+      testEventIds.add(eventRepository.saveAndFlush(new Event()).getEventId());
+    }
+  }
+
+  @Test
+  void testSingleAndBatchThroughput() {
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+    List<EventScoreUpdate> updates = new ArrayList<>();
+    for (int minute = 1; minute <= UPDATES_PER_EVENT; minute++) {
+      for (UUID testEventId : testEventIds) {
+        EventScoreUpdate update = new EventScoreUpdate();
+        update.setEventId(testEventId);
+        update.setHomeTeamScore(minute);
+        update.setScoreValidAtTimestamp(kickOff.plusMinutes(minute));
+        updates.add(update);
+      }
+    }
+
+    long singleStart = System.nanoTime();
+    for (EventScoreUpdate update : updates) {
+      UpdateScore updateScore = new UpdateScore();
+      updateScore.setHomeTeamScore(update.getHomeTeamScore());
+      updateScore.setScoreValidAtTimestamp(update.getScoreValidAtTimestamp());
+      String url = String.format("http://localhost:%d/event/%s", port, update.getEventId());
+      testRestTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(updateScore), Void.class);
+    }
+    long singleNanos = System.nanoTime() - singleStart;
+
+    // Replay the same updates an hour later so every one of them is applied again
+    updates.forEach(
+        update -> update.setScoreValidAtTimestamp(update.getScoreValidAtTimestamp().plusHours(1)));
+
+    long batchStart = System.nanoTime();
+    String batchUrl = String.format("http://localhost:%d/event/scores", port);
+    for (int from = 0; from < updates.size(); from += BATCH_SIZE) {
+      List<EventScoreUpdate> batch =
+          updates.subList(from, Math.min(from + BATCH_SIZE, updates.size()));
+      ResponseEntity<ScoreUpdateOutcome[]> response =
+          testRestTemplate.exchange(
+              batchUrl, HttpMethod.PUT, new HttpEntity<>(batch), ScoreUpdateOutcome[].class);
+      assertThat(response.getBody())
+          .extracting(ScoreUpdateOutcome::getResult)
+          .containsOnly(ScoreUpdateResult.APPLIED);
+    }
+    long batchNanos = System.nanoTime() - batchStart;
+
+    LOGGER.info(
+        "{} score updates: single PUTs {} updates/s, batches of {} {} updates/s",
+        updates.size(),
+        String.format("%.0f", updates.size() / (singleNanos / 1e9)),
+        BATCH_SIZE,
+        String.format("%.0f", updates.size() / (batchNanos / 1e9)));
+
+    eventRepository
+        .findAll()
+        .forEach(event -> assertThat(event.getHomeTeamScore()).isEqualTo(UPDATES_PER_EVENT));
+  }
+}
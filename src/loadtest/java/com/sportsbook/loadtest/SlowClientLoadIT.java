@@ -0,0 +1,76 @@
+package com.sportsbook.loadtest;
+
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Polls an event while many slow clients are sending score updates, and streams an event's changes
+ * while many subscribers do not read theirs, with Tomcat handling requests on its pool of platform
+ * threads. Compare its report with {@link VirtualThreadSlowClientLoadIT}'s.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "server.tomcat.threads.max=200")
+@ActiveProfiles("test")
+public class SlowClientLoadIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SlowClientLoadIT.class);
+
+  @Autowired private EventRepository eventRepository;
+
+  @LocalServerPort private int port;
+
+  @Test
+  void testPollsWhileClientsAreSlow() throws Exception {
+    SlowClients.Settings settings = SlowClients.Settings.fromSystemProperties();
+    UUID testEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+
+    SlowClients.Report report = new SlowClients("localhost", port, settings).run(testEventId);
+
+    LOGGER.info(
+        "{} with {}:{}{}",
+        getClass().getSimpleName(),
+        settings,
+        System.lineSeparator(),
+        report);
+    assertThat(report.getErrors()).isZero();
+  }
+
+  @Test
+  void testStreamsKeepUpWhileReadersAreSlow() throws Exception {
+    SlowReaders.Settings settings = SlowReaders.Settings.fromSystemProperties();
+    List<UUID> testEventIds = new ArrayList<>();
+    for (int i = 0; i < settings.getWriters(); i++) {
+      testEventIds.add(eventRepository.saveAndFlush(new Event()).getEventId());
+    }
+    UUID markerId = eventRepository.saveAndFlush(new Event()).getEventId();
+
+    SlowReaders.Report report =
+        new SlowReaders("localhost", port, settings).run(testEventIds, markerId);
+
+    LOGGER.info(
+        "{} with {}:{}{}",
+        getClass().getSimpleName(),
+        settings,
+        System.lineSeparator(),
+        report);
+    assertThat(report.getErrors()).isZero();
+    assertThat(report.getFastDelivered()).isEqualTo(report.getFastSubscribers());
+  }
+}
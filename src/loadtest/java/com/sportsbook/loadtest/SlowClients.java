@@ -0,0 +1,220 @@
+package com.sportsbook.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many clients that send their score updates slowly, a few bytes at a time, while a handful of
+ * ordinary clients poll an event. Reading a request body blocks the thread handling the request,
+ * so with a bounded pool of platform threads the slow clients can hold every one of them and the
+ * polls queue behind them.
+ */
+public class SlowClients {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final String host;
+  private final int port;
+  private final Settings settings;
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+
+  public SlowClients(String host, int port, Settings settings) {
+    this.host = host;
+    this.port = port;
+    this.settings = settings;
+  }
+
+  public Report run(UUID eventId) throws Exception {
+    Recorder pollLatency = new Recorder(3);
+    AtomicLong polls = new AtomicLong();
+    AtomicLong errors = new AtomicLong();
+    AtomicLong slowCompleted = new AtomicLong();
+    AtomicBoolean slowRunning = new AtomicBoolean(true);
+
+    HttpRequest poll =
+        HttpRequest.newBuilder(URI.create(String.format("http://%s:%d/event/%s", host, port, eventId)))
+            .timeout(TIMEOUT)
+            .GET()
+            .build();
+
+    // Platform threads, so the clients never wait on the scheduler of the server's virtual threads
+    long start = System.nanoTime();
+    try (ExecutorService clients =
+        Executors.newFixedThreadPool(settings.slowClients + settings.pollers)) {
+      List<Future<?>> slow = new ArrayList<>();
+      for (int i = 0; i < settings.slowClients; i++) {
+        int score = i;
+        slow.add(
+            clients.submit(
+                () -> {
+                  if (sendSlowlyOrFail(eventId, score)) {
+                    slowCompleted.incrementAndGet();
+                  } else {
+                    errors.incrementAndGet();
+                  }
+                  return null;
+                }));
+      }
+
+      // Give the slow clients time to connect before the polls are measured
+      Thread.sleep(200);
+      List<Future<?>> pollers = new ArrayList<>();
+      for (int i = 0; i < settings.pollers; i++) {
+        pollers.add(
+            clients.submit(
+                () -> {
+                  while (slowRunning.get()) {
+                    long pollStart = System.nanoTime();
+                    try {
+                      HttpResponse<Void> response =
+                          httpClient.send(poll, HttpResponse.BodyHandlers.discarding());
+                      if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                      }
+                    } catch (IOException e) {
+                      errors.incrementAndGet();
+                    }
+                    pollLatency.recordValue(System.nanoTime() - pollStart);
+                    polls.incrementAndGet();
+                  }
+                  return null;
+                }));
+      }
+
+      for (Future<?> future : slow) {
+        future.get();
+      }
+      slowRunning.set(false);
+      for (Future<?> future : pollers) {
+        future.get();
+      }
+    }
+
+    Report report = new Report();
+    report.seconds = (System.nanoTime() - start) / 1e9;
+    report.slowClients = settings.slowClients;
+    report.slowCompleted = slowCompleted.get();
+    report.polls = polls.get();
+    report.errors = errors.get();
+    report.pollLatency = pollLatency.getIntervalHistogram();
+    return report;
+  }
+
+  private boolean sendSlowlyOrFail(UUID eventId, int score) throws InterruptedException {
+    try {
+      return sendSlowly(eventId, score);
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  // Writes the request headers at once, then trickles the body out over the configured time
+  private boolean sendSlowly(UUID eventId, int score) throws IOException, InterruptedException {
+    byte[] body =
+        String.format(
+                "{\"homeTeamScore\":%d,\"awayTeamScore\":0,"
+                    + "\"scoreValidAtTimestamp\":\"2021-08-03T15:00:00.%06d\"}",
+                score, score)
+            .getBytes(StandardCharsets.UTF_8);
+    String headers =
+        String.format(
+            "PUT /event/%s HTTP/1.1\r\nHost: %s:%d\r\nContent-Type: application/json\r\n"
+                + "Content-Length: %d\r\nConnection: close\r\n\r\n",
+            eventId, host, port, body.length);
+
+    try (Socket socket = new Socket(host, port)) {
+      socket.setSoTimeout((int) TIMEOUT.toMillis());
+      OutputStream out = socket.getOutputStream();
+      out.write(headers.getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+
+      long pause = TimeUnit.SECONDS.toMillis(settings.slowSeconds) / body.length;
+      for (byte b : body) {
+        Thread.sleep(pause);
+        out.write(b);
+        out.flush();
+      }
+
+      InputStream in = socket.getInputStream();
+      byte[] statusLine = new byte[12];
+      return in.readNBytes(statusLine, 0, statusLine.length) == statusLine.length
+          && new String(statusLine, StandardCharsets.US_ASCII).endsWith("200");
+    }
+  }
+
+  /** How many clients to run, read from {@code loadtest.*} properties. */
+  public static final class Settings {
+
+    private int slowClients = 400;
+    private int slowSeconds = 5;
+    private int pollers = 4;
+
+    public static Settings fromSystemProperties() {
+      Settings settings = new Settings();
+      settings.slowClients = Integer.getInteger("loadtest.slow-clients", settings.slowClients);
+      settings.slowSeconds = Integer.getInteger("loadtest.slow-client-seconds", settings.slowSeconds);
+      settings.pollers = Integer.getInteger("loadtest.pollers", settings.pollers);
+      return settings;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d slow clients over %d s, %d pollers", slowClients, slowSeconds, pollers);
+    }
+  }
+
+  public static final class Report {
+
+    private double seconds;
+    private int slowClients;
+    private long slowCompleted;
+    private long polls;
+    private long errors;
+    private Histogram pollLatency;
+
+    public long getErrors() {
+      return errors;
+    }
+
+    public long getSlowCompleted() {
+      return slowCompleted;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d of %d slow updates completed in %.1f s%n"
+              + "  %d polls  p50 %.2f ms  p99 %.2f ms  max %.2f ms%n"
+              + "  %d errors",
+          slowCompleted,
+          slowClients,
+          seconds,
+          polls,
+          pollLatency.getValueAtPercentile(50) / 1e6,
+          pollLatency.getValueAtPercentile(99) / 1e6,
+          pollLatency.getMaxValue() / 1e6,
+          errors);
+    }
+  }
+}
@@ -0,0 +1,238 @@
+package com.sportsbook.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Many event stream subscribers that never read what they are sent, next to a few that read
+ * everything, while a run of score updates goes out to several events. Once a slow reader's socket
+ * buffers fill up, every write to it blocks, so unless the server gives up on those writes the slow
+ * readers can hold every stream sender and the fast subscribers stop getting updates. Like {@code
+ * EventSource}, a fast subscriber that is disconnected reconnects.
+ */
+public class SlowReaders {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final String host;
+  private final int port;
+  private final Settings settings;
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+  public SlowReaders(String host, int port, Settings settings) {
+    this.host = host;
+    this.port = port;
+    this.settings = settings;
+  }
+
+  /**
+   * Spreads the updates over {@code eventIds}, one client each, then updates {@code markerId} until
+   * every fast subscriber has seen it.
+   */
+  public Report run(List<UUID> eventIds, UUID markerId) throws Exception {
+    List<Socket> slowReaders = new ArrayList<>();
+    CountDownLatch delivered = new CountDownLatch(settings.fastSubscribers);
+    String marker = String.format("\"eventId\":\"%s\"", markerId);
+    AtomicLong errors = new AtomicLong();
+    AtomicLong reconnects = new AtomicLong();
+    Report report = new Report();
+
+    // Platform threads, so the clients never wait on the scheduler of the server's virtual threads
+    ExecutorService clients =
+        Executors.newFixedThreadPool(settings.fastSubscribers + eventIds.size());
+    try {
+      for (int i = 0; i < settings.slowReaders; i++) {
+        slowReaders.add(subscribeWithoutReading());
+      }
+      for (int i = 0; i < settings.fastSubscribers; i++) {
+        clients.execute(() -> readUntil(marker, delivered, reconnects));
+      }
+
+      // Give every subscriber time to be registered before the updates start
+      Thread.sleep(1000);
+      long start = System.nanoTime();
+      int updatesPerEvent = settings.updates / eventIds.size();
+      List<Future<?>> writers = new ArrayList<>();
+      for (UUID eventId : eventIds) {
+        writers.add(
+            clients.submit(
+                () -> {
+                  for (int score = 1; score <= updatesPerEvent; score++) {
+                    if (!update(eventId, score)) {
+                      errors.incrementAndGet();
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> writer : writers) {
+        writer.get();
+      }
+      report.updateSeconds = (System.nanoTime() - start) / 1e9;
+
+      long markedAt = System.nanoTime();
+      long deadline = markedAt + TIMEOUT.toNanos();
+      int score = 0;
+      do {
+        update(markerId, ++score);
+      } while (!delivered.await(200, TimeUnit.MILLISECONDS) && System.nanoTime() < deadline);
+      report.deliveryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - markedAt);
+    } finally {
+      httpClient.shutdownNow();
+      clients.shutdownNow();
+      for (Socket socket : slowReaders) {
+        socket.close();
+      }
+    }
+
+    report.settings = settings;
+    report.fastDelivered = settings.fastSubscribers - delivered.getCount();
+    report.reconnects = reconnects.get();
+    report.errors = errors.get();
+    return report;
+  }
+
+  // A small receive buffer, so the server's writes to it start blocking as early as they can
+  private Socket subscribeWithoutReading() throws IOException {
+    Socket socket = new Socket();
+    socket.setReceiveBufferSize(1024);
+    socket.connect(new InetSocketAddress(host, port));
+    String request =
+        String.format(
+            "GET /event/stream HTTP/1.1\r\nHost: %s:%d\r\nAccept: text/event-stream\r\n\r\n",
+            host, port);
+    OutputStream out = socket.getOutputStream();
+    out.write(request.getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+    return socket;
+  }
+
+  private void readUntil(String marker, CountDownLatch delivered, AtomicLong reconnects) {
+    HttpRequest stream =
+        HttpRequest.newBuilder(URI.create(String.format("http://%s:%d/event/stream", host, port)))
+            .header("Accept", "text/event-stream")
+            .build();
+    while (!Thread.currentThread().isInterrupted()) {
+      try (Stream<String> lines =
+          httpClient.send(stream, HttpResponse.BodyHandlers.ofLines()).body()) {
+        if (lines.anyMatch(line -> line.contains(marker))) {
+          delivered.countDown();
+          return;
+        }
+      } catch (IOException | UncheckedIOException e) {
+        // Reconnect below
+      } catch (InterruptedException e) {
+        return;
+      }
+      reconnects.incrementAndGet();
+    }
+  }
+
+  private boolean update(UUID eventId, int score) throws InterruptedException {
+    String body =
+        String.format(
+            "{\"homeTeamScore\":%d,\"awayTeamScore\":0,"
+                + "\"scoreValidAtTimestamp\":\"2021-08-03T15:00:00.%06d\"}",
+            score, score);
+    URI uri = URI.create(String.format("http://%s:%d/event/%s", host, port, eventId));
+    HttpRequest request =
+        HttpRequest.newBuilder(uri)
+            .timeout(TIMEOUT)
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    try {
+      return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** How many subscribers, updates and clients to run, read from {@code loadtest.*} properties. */
+  public static final class Settings {
+
+    private int slowReaders = 32;
+    private int fastSubscribers = 4;
+    private int updates = 16000;
+    private int writers = 8;
+
+    public static Settings fromSystemProperties() {
+      Settings settings = new Settings();
+      settings.slowReaders = Integer.getInteger("loadtest.slow-readers", settings.slowReaders);
+      settings.fastSubscribers =
+          Integer.getInteger("loadtest.fast-subscribers", settings.fastSubscribers);
+      settings.updates = Integer.getInteger("loadtest.stream-updates", settings.updates);
+      settings.writers = Integer.getInteger("loadtest.stream-writers", settings.writers);
+      return settings;
+    }
+
+    public int getWriters() {
+      return writers;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d slow readers, %d fast subscribers, %d updates from %d clients",
+          slowReaders, fastSubscribers, updates, writers);
+    }
+  }
+
+  public static final class Report {
+
+    private Settings settings;
+    private double updateSeconds;
+    private long fastDelivered;
+    private long deliveryMillis;
+    private long reconnects;
+    private long errors;
+
+    public long getErrors() {
+      return errors;
+    }
+
+    public long getFastDelivered() {
+      return fastDelivered;
+    }
+
+    public int getFastSubscribers() {
+      return settings.fastSubscribers;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d updates sent in %.1f s past %d slow readers%n"
+              + "  %d of %d fast subscribers got the last one %d ms later, after %d reconnects%n"
+              + "  %d errors",
+          settings.updates,
+          updateSeconds,
+          settings.slowReaders,
+          fastDelivered,
+          settings.fastSubscribers,
+          deliveryMillis,
+          reconnects,
+          errors);
+    }
+  }
+}
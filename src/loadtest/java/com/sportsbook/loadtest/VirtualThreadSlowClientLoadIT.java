@@ -0,0 +1,11 @@
+package com.sportsbook.loadtest;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Runs {@link SlowClientLoadIT} with Tomcat handling requests on virtual threads. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "scoreboard.virtual-threads.enabled=true")
+@ActiveProfiles("test")
+public class VirtualThreadSlowClientLoadIT extends SlowClientLoadIT {}
@@ -0,0 +1,73 @@
+package com.sportsbook;
+
+import com.sportsbook.datasource.ReadReplicaRoutingDataSource;
+import com.sportsbook.datasource.ReplicaLag;
+import com.sportsbook.datasource.ReplicaReads;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Adds a read replica alongside the primary database. Everything that injects a {@link DataSource}
+ * gets one that sends the uncached event reads to the replica and everything else to the primary.
+ * Each pool is a bean of its own, so each has its own {@code hikaricp} metrics and health check.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "scoreboard.replica.enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties("scoreboard.replica.datasource")
+  public HikariDataSource replicaDataSource() {
+    HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+    dataSource.setPoolName("replica");
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLag replicaLag(
+      @Qualifier("replicaDataSource") DataSource replicaDataSource,
+      @Value("${scoreboard.replica.max-lag:1s}") Duration maxLag) {
+    return new ReplicaLag(replicaDataSource, maxLag);
+  }
+
+  @Bean
+  public ReplicaReads replicaReads(
+      @Value("${scoreboard.replica.read-your-writes:5s}") Duration readYourWrites) {
+    return new ReplicaReads(readYourWrites);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primaryDataSource,
+      @Qualifier("replicaDataSource") DataSource replicaDataSource,
+      ReplicaReads replicaReads,
+      ReplicaLag replicaLag) {
+    return new LazyConnectionDataSourceProxy(
+        new ReadReplicaRoutingDataSource(
+            primaryDataSource, replicaDataSource, replicaReads, replicaLag));
+  }
+}
@@ -0,0 +1,326 @@
+package com.sportsbook.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.datasource.ReplicaReads;
+import com.sportsbook.model.dto.EventFilter;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventIds;
+import com.sportsbook.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * In-memory view of every event, loaded at startup and kept current by the write paths calling
+ * {@link #put(Event)} once their change is committed. When disabled, reads go straight to the
+ * repository, and may be served by the read replica.
+ *
+ * <p>Each event is serialised to JSON as it is cached, so a change costs one event's serialisation
+ * and the full list is rebuilt from those fragments by copying bytes, at most once per change.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EventCache {
+
+  private final EventRepository eventRepository;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final Optional<ReplicaReads> replicaReads;
+
+  private final Map<UUID, SerializedEvent> events = new ConcurrentHashMap<>();
+  private final NavigableSet<UUID> orderedEventIds =
+      new ConcurrentSkipListSet<>(EventIds.DATABASE_ORDER);
+
+  // Bumped after every put, so a list built from an older version is known to be out of date
+  private final AtomicLong version = new AtomicLong();
+  private final Lock listLock = new ReentrantLock();
+  private volatile SerializedEventList list;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter listBuilds;
+
+  public EventCache(
+      EventRepository eventRepository,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      boolean enabled) {
+    this(eventRepository, objectMapper, meterRegistry, enabled, Optional.empty());
+  }
+
+  @Autowired
+  public EventCache(
+      EventRepository eventRepository,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.cache.enabled:true}") boolean enabled,
+      Optional<ReplicaReads> replicaReads) {
+    this.eventRepository = eventRepository;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.replicaReads = replicaReads;
+
+    hits = meterRegistry.counter("cache.gets", "cache", "events", "result", "hit");
+    misses = meterRegistry.counter("cache.gets", "cache", "events", "result", "miss");
+    listBuilds = meterRegistry.counter("scoreboard.cache.list.builds");
+    Gauge.builder("cache.size", events, Map::size)
+        .tag("cache", "events")
+        .register(meterRegistry);
+    Gauge.builder("cache.hit.ratio", this, EventCache::hitRatio)
+        .tag("cache", "events")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void reload() {
+    if (!enabled) {
+      return;
+    }
+    events.clear();
+    orderedEventIds.clear();
+    version.incrementAndGet();
+    eventRepository.forEachEvent(this::put);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public List<Event> findAll() {
+    if (!enabled) {
+      return uncached(eventRepository::findAll);
+    }
+    hits.increment();
+    List<Event> all = new ArrayList<>(events.size());
+    events.values().forEach(cached -> all.add(cached.getEvent()));
+    return all;
+  }
+
+  /**
+   * Returns the JSON array of every event in event id order. While nothing changes, every caller
+   * gets the same instance.
+   */
+  public SerializedEventList findAllSerialized() {
+    if (!enabled) {
+      List<Event> all = uncached(eventRepository::findAll);
+      return new SerializedEventList(0, serialize(all));
+    }
+
+    hits.increment();
+    SerializedEventList current = list;
+    if (current != null && current.getVersion() == version.get()) {
+      return current;
+    }
+    // Every request arriving during a rebuild queues here
+    listLock.lock();
+    try {
+      // Read before the fragments, so the list is never older than the version it claims
+      long latest = version.get();
+      current = list;
+      if (current == null || current.getVersion() != latest) {
+        int sizeHint = current == null ? 1024 : current.getJson().length + 1024;
+        current = new SerializedEventList(latest, joinFragments(sizeHint, event -> true));
+        list = current;
+        listBuilds.increment();
+      }
+      return current;
+    } finally {
+      listLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the JSON array of the events matching the filter, in event id order. Built per call
+   * from the cached fragments, or from a projection query when the cache is disabled.
+   */
+  public byte[] findMatchingJson(EventFilter filter) {
+    if (!enabled) {
+      return serialize(uncached(() -> eventRepository.findAllMatching(filter)));
+    }
+    hits.increment();
+    return joinFragments(1024, filter::matches);
+  }
+
+  /** Returns up to {@code limit} events in event id order, starting after {@code after} if given. */
+  public List<Event> findPage(UUID after, int limit) {
+    if (!enabled) {
+      PageRequest pageRequest = PageRequest.of(0, limit);
+      return uncached(
+          () ->
+              after == null
+                  ? eventRepository.findFirstPage(pageRequest)
+                  : eventRepository.findPageAfter(after, pageRequest));
+    }
+
+    hits.increment();
+    List<Event> page = new ArrayList<>(limit);
+    for (UUID eventId : after == null ? orderedEventIds : orderedEventIds.tailSet(after, false)) {
+      if (page.size() == limit) {
+        break;
+      }
+      SerializedEvent cached = events.get(eventId);
+      if (cached != null) {
+        page.add(cached.getEvent());
+      }
+    }
+    return page;
+  }
+
+  /** Hands every event to the action in event id order without collecting them into a list. */
+  public void forEach(Consumer<Event> action) {
+    if (!enabled) {
+      uncached(
+          () -> {
+            eventRepository.forEachEvent(action);
+            return null;
+          });
+      return;
+    }
+
+    hits.increment();
+    for (UUID eventId : orderedEventIds) {
+      SerializedEvent cached = events.get(eventId);
+      if (cached != null) {
+        action.accept(cached.getEvent());
+      }
+    }
+  }
+
+  public Optional<Event> findById(UUID eventId) {
+    return findSerializedById(eventId).map(SerializedEvent::getEvent);
+  }
+
+  /** Returns the event along with the JSON it was cached with, so the two always match. */
+  public Optional<SerializedEvent> findSerializedById(UUID eventId) {
+    if (!enabled) {
+      return uncached(eventId, () -> eventRepository.findById(eventId)).map(this::serialize);
+    }
+
+    SerializedEvent cached = events.get(eventId);
+    if (cached != null) {
+      hits.increment();
+      return Optional.of(cached);
+    }
+
+    // Only rows written behind the application's back end up here
+    misses.increment();
+    Optional<SerializedEvent> loaded =
+        eventRepository.findById(eventId).map(found -> serialize(found.copy()));
+    loaded.ifPresent(
+        found -> {
+          if (events.putIfAbsent(eventId, found) == null) {
+            orderedEventIds.add(eventId);
+            version.incrementAndGet();
+          }
+        });
+    return loaded;
+  }
+
+  /** Returns the cached event without falling back to the database; empty if it is not cached. */
+  public Optional<Event> findCachedById(UUID eventId) {
+    return Optional.ofNullable(events.get(eventId)).map(SerializedEvent::getEvent);
+  }
+
+  // Readers share the cached instances, so the entity being updated is never cached itself
+  public void put(Event event) {
+    if (!enabled) {
+      return;
+    }
+    if (events.put(event.getEventId(), serialize(event.copy())) == null) {
+      orderedEventIds.add(event.getEventId());
+    }
+    version.incrementAndGet();
+  }
+
+  public void remove(UUID eventId) {
+    if (!enabled) {
+      return;
+    }
+    if (events.remove(eventId) != null) {
+      orderedEventIds.remove(eventId);
+      version.incrementAndGet();
+    }
+  }
+
+  // Reads that are not cached may be served by the read replica, if there is one. Anything that
+  // ends up in the cache is read from the primary
+  private <T> T uncached(Supplier<T> read) {
+    return replicaReads.isPresent() ? replicaReads.get().read(read) : read.get();
+  }
+
+  private <T> T uncached(UUID eventId, Supplier<T> read) {
+    return replicaReads.isPresent() ? replicaReads.get().read(eventId, read) : read.get();
+  }
+
+  /**
+   * Moves on with every change to the cached events, including rows written outside the API that a
+   * miss loads, which never reach the change log.
+   */
+  public long version() {
+    return version.get();
+  }
+
+  public int size() {
+    return events.size();
+  }
+
+  public double hitRatio() {
+    double total = hits.count() + misses.count();
+    return total == 0 ? 0 : hits.count() / total;
+  }
+
+  private byte[] joinFragments(int sizeHint, Predicate<Event> filter) {
+    ByteArrayOutputStream json = new ByteArrayOutputStream(sizeHint);
+    json.write('[');
+    boolean first = true;
+    for (UUID eventId : orderedEventIds) {
+      SerializedEvent cached = events.get(eventId);
+      if (cached == null || !filter.test(cached.getEvent())) {
+        continue;
+      }
+      if (!first) {
+        json.write(',');
+      }
+      json.writeBytes(cached.getJson());
+      first = false;
+    }
+    json.write(']');
+    return json.toByteArray();
+  }
+
+  private SerializedEvent serialize(Event event) {
+    return new SerializedEvent(event, serialize((Object) event));
+  }
+
+  private byte[] serialize(Object value) {
+    try {
+      return objectMapper.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
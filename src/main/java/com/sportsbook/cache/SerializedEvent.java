@@ -0,0 +1,13 @@
+package com.sportsbook.cache;
+
+import com.sportsbook.model.entity.Event;
+import lombok.Value;
+
+/** A cached event together with its JSON, serialised once when the event was cached. */
+@Value
+public class SerializedEvent {
+
+  Event event;
+
+  byte[] json;
+}
@@ -0,0 +1,67 @@
+package com.sportsbook.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The JSON array of every event, ready to write to a response. One instance is shared by every
+ * reader until the next change, and its gzip form is compressed on first use.
+ */
+public final class SerializedEventList {
+
+  private final long version;
+  private final byte[] json;
+  private volatile byte[] gzip;
+  // Held while compressing; a monitor would pin the carriers of the virtual threads waiting on it
+  private final Lock gzipLock = new ReentrantLock();
+
+  SerializedEventList(long version, byte[] json) {
+    this.version = version;
+    this.json = json;
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  public byte[] getJson() {
+    return json;
+  }
+
+  public byte[] getGzip() {
+    byte[] compressed = gzip;
+    if (compressed == null) {
+      gzipLock.lock();
+      try {
+        compressed = gzip;
+        if (compressed == null) {
+          compressed = gzip = compress(json);
+        }
+      } finally {
+        gzipLock.unlock();
+      }
+    }
+    return compressed;
+  }
+
+  // The list is rebuilt after every change, so speed matters more than the last few percent
+  private static byte[] compress(byte[] bytes) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzipStream =
+        new GZIPOutputStream(compressed) {
+          {
+            def.setLevel(Deflater.BEST_SPEED);
+          }
+        }) {
+      gzipStream.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+}
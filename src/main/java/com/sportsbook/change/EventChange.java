@@ -0,0 +1,34 @@
+package com.sportsbook.change;
+
+import com.sportsbook.model.entity.Event;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/** Published once a change to an event has been committed. */
+@Value
+@AllArgsConstructor
+public class EventChange {
+
+  public enum Type {
+    CREATED,
+    SCORE_UPDATED,
+    STATUS_UPDATED,
+    // Moved out of the event table; the event carries its last state
+    ARCHIVED
+  }
+
+  // Increases with every change published by this instance
+  long sequence;
+
+  Type type;
+
+  // Detached copy of the event as it was after the change
+  Event event;
+
+  // Made by another instance of the cluster and only applied here, so not to be sent on again
+  boolean remote;
+
+  public EventChange(long sequence, Type type, Event event) {
+    this(sequence, type, event, false);
+  }
+}
@@ -0,0 +1,351 @@
+package com.sportsbook.change;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.model.dto.ScoreChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed event changes to Server-Sent Event subscribers.
+ *
+ * <p>Publishing a change only serialises it once and offers it to each subscriber's bounded
+ * buffer; the actual writes happen on a separate pool, at most one task per subscriber at a time.
+ * A subscriber whose buffer fills up, or whose client stops reading so that a single write blocks
+ * for longer than the write timeout, is disconnected rather than allowed to hold up the others, and
+ * is expected to reconnect and re-read the events it is interested in.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EventChangeBroadcaster {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventChangeBroadcaster.class);
+
+  private final ObjectMapper objectMapper;
+  private final int maxSubscribers;
+  private final int bufferSize;
+  private final long timeoutMillis;
+  private final long writeTimeoutNanos;
+  private final ExecutorService senders;
+  private final int senderThreads;
+  private final ScheduledExecutorService heartbeats;
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  // Dropped subscribers whose sender has yet to complete them
+  private final Set<Subscriber> disconnecting = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger stalledSenders = new AtomicInteger();
+
+  private final Counter dropped;
+
+  @Autowired
+  public EventChangeBroadcaster(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.stream.max-subscribers:10000}") int maxSubscribers,
+      @Value("${scoreboard.stream.buffer-size:64}") int bufferSize,
+      @Value("${scoreboard.stream.timeout:30m}") Duration timeout,
+      @Value("${scoreboard.stream.write-timeout:5s}") Duration writeTimeout,
+      @Value("${scoreboard.stream.sender-threads:8}") int senderThreads,
+      @Value("${scoreboard.virtual-threads.enabled:false}") boolean virtualThreads) {
+    this(
+        objectMapper,
+        meterRegistry,
+        maxSubscribers,
+        bufferSize,
+        timeout,
+        writeTimeout,
+        virtualThreads
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-sender-", 0).factory())
+            : Executors.newFixedThreadPool(senderThreads, daemonThreads("sse-sender")));
+  }
+
+  EventChangeBroadcaster(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      int maxSubscribers,
+      int bufferSize,
+      Duration timeout,
+      Duration writeTimeout,
+      ExecutorService senders) {
+    this.objectMapper = objectMapper;
+    this.maxSubscribers = maxSubscribers;
+    this.bufferSize = bufferSize;
+    this.timeoutMillis = timeout.toMillis();
+    this.writeTimeoutNanos = writeTimeout.toNanos();
+    this.senders = senders;
+    this.senderThreads =
+        senders instanceof ThreadPoolExecutor
+            ? ((ThreadPoolExecutor) senders).getCorePoolSize()
+            : 0;
+
+    heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("sse-heartbeat"));
+    heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, 15, 15, TimeUnit.SECONDS);
+    heartbeats.scheduleWithFixedDelay(
+        this::dropStalledSubscribers, 500, 500, TimeUnit.MILLISECONDS);
+
+    dropped = meterRegistry.counter("scoreboard.stream.subscribers.dropped");
+    Gauge.builder("scoreboard.stream.subscribers", subscribers, Set::size)
+        .register(meterRegistry);
+    Gauge.builder("scoreboard.stream.writes.stalled", stalledSenders, AtomicInteger::get)
+        .register(meterRegistry);
+  }
+
+  /** Subscribes to changes to every event, or to one event if {@code eventId} is given. */
+  public SseEmitter subscribe(UUID eventId) {
+    if (subscribers.size() >= maxSubscribers) {
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers");
+    }
+
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter, eventId, bufferSize);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    return emitter;
+  }
+
+  @EventListener
+  public void onChange(EventChange change) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+
+    Message message;
+    try {
+      String id = Long.toString(change.getSequence());
+      message = new Message(id, messageName(change), messageData(change));
+    } catch (JsonProcessingException e) {
+      LOGGER.error("Could not serialise change {}", change.getSequence(), e);
+      return;
+    }
+
+    UUID eventId = change.getEvent().getEventId();
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.eventId != null && !subscriber.eventId.equals(eventId)) {
+        continue;
+      }
+      if (subscriber.buffer.offer(message)) {
+        scheduleSend(subscriber);
+      } else {
+        disconnect(subscriber);
+      }
+    }
+  }
+
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    heartbeats.shutdownNow();
+    senders.shutdownNow();
+    // Completing an emitter waits for its write, so skip those stuck on a client
+    subscribers.stream()
+        .filter(subscriber -> subscriber.writeStarted.get() == Subscriber.IDLE)
+        .forEach(subscriber -> subscriber.emitter.complete());
+  }
+
+  private static String messageName(EventChange change) {
+    switch (change.getType()) {
+      case CREATED:
+        return "created";
+      case STATUS_UPDATED:
+        return "status";
+      case ARCHIVED:
+        return "archived";
+      default:
+        return "score";
+    }
+  }
+
+  // Score updates only carry what changed, every other change sends the event in full
+  private String messageData(EventChange change) throws JsonProcessingException {
+    if (change.getType() == EventChange.Type.SCORE_UPDATED) {
+      return objectMapper.writeValueAsString(ScoreChange.of(change.getEvent()));
+    }
+    return objectMapper.writeValueAsString(change.getEvent());
+  }
+
+  private void scheduleSend(Subscriber subscriber) {
+    if (subscriber.sending.compareAndSet(false, true)) {
+      senders.execute(() -> send(subscriber));
+    }
+  }
+
+  private void send(Subscriber subscriber) {
+    try {
+      Message message;
+      while (!subscriber.closed && (message = subscriber.buffer.poll()) != null) {
+        subscriber.writeStarted.set(System.nanoTime());
+        subscriber.emitter.send(message.toEvent());
+        endWrite(subscriber);
+      }
+      if (subscriber.closed && !subscriber.completed) {
+        subscriber.completed = true;
+        disconnecting.remove(subscriber);
+        subscriber.emitter.complete();
+      }
+    } catch (IOException | IllegalStateException e) {
+      // The client has gone away; the emitter's callbacks remove it
+      subscribers.remove(subscriber);
+      disconnecting.remove(subscriber);
+      return;
+    } finally {
+      endWrite(subscriber);
+      subscriber.sending.set(false);
+    }
+
+    // A change or a disconnect may have come in after the last poll but before sending was cleared
+    if (subscriber.closed ? !subscriber.completed : !subscriber.buffer.isEmpty()) {
+      scheduleSend(subscriber);
+    }
+  }
+
+  private void endWrite(Subscriber subscriber) {
+    if (subscriber.writeStarted.getAndSet(Subscriber.IDLE) == Subscriber.STALLED) {
+      stalledSenders.decrementAndGet();
+    }
+  }
+
+  // Completing an emitter waits for its write in progress, so that is left to the sender
+  private void disconnect(Subscriber subscriber) {
+    if (subscribers.remove(subscriber)) {
+      dropped.increment();
+      disconnecting.add(subscriber);
+      subscriber.closed = true;
+      subscriber.buffer.clear();
+      scheduleSend(subscriber);
+    }
+  }
+
+  // A client that stopped reading leaves its sender blocked until the server's socket write timeout
+  // gives up on it. Such a subscriber is dropped, and the pool gets a thread in place of its sender
+  // until then, so the other subscribers keep as many senders as they had.
+  private void dropStalledSubscribers() {
+    long now = System.nanoTime();
+    subscribers.forEach(subscriber -> dropIfStalled(subscriber, now));
+    disconnecting.forEach(subscriber -> dropIfStalled(subscriber, now));
+    resizeSenders();
+  }
+
+  private void dropIfStalled(Subscriber subscriber, long now) {
+    long started = subscriber.writeStarted.get();
+    if (started != Subscriber.IDLE
+        && started != Subscriber.STALLED
+        && now - started > writeTimeoutNanos
+        && subscriber.writeStarted.compareAndSet(started, Subscriber.STALLED)) {
+      stalledSenders.incrementAndGet();
+      disconnect(subscriber);
+    }
+  }
+
+  // Only ever called from the heartbeat thread
+  private void resizeSenders() {
+    if (!(senders instanceof ThreadPoolExecutor)) {
+      return;
+    }
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) senders;
+    int size = senderThreads + stalledSenders.get();
+    if (size > pool.getMaximumPoolSize()) {
+      pool.setMaximumPoolSize(size);
+      pool.setCorePoolSize(size);
+    } else if (size < pool.getCorePoolSize()) {
+      pool.setCorePoolSize(size);
+      pool.setMaximumPoolSize(size);
+    }
+  }
+
+  private void sendHeartbeats() {
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.buffer.offer(Message.HEARTBEAT)) {
+        scheduleSend(subscriber);
+      }
+    }
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  // Serialised once per change and shared by every subscriber it is sent to
+  private static final class Message {
+
+    private static final Message HEARTBEAT = new Message(null, null, null);
+
+    private final String id;
+    private final String name;
+    private final String data;
+
+    private Message(String id, String name, String data) {
+      this.id = id;
+      this.name = name;
+      this.data = data;
+    }
+
+    private SseEmitter.SseEventBuilder toEvent() {
+      if (this == HEARTBEAT) {
+        return SseEmitter.event().comment("heartbeat");
+      }
+      return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+  }
+
+  private static final class Subscriber {
+
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long STALLED = Long.MAX_VALUE;
+
+    private final SseEmitter emitter;
+    private final UUID eventId;
+    private final Queue<Message> buffer;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    // When the write in progress started, IDLE between writes, or STALLED once it has timed out
+    private final AtomicLong writeStarted = new AtomicLong(IDLE);
+    private volatile boolean closed;
+    // Only touched by the subscriber's sender, of which there is at most one at a time
+    private boolean completed;
+
+    private Subscriber(SseEmitter emitter, UUID eventId, int bufferSize) {
+      this.emitter = emitter;
+      this.eventId = eventId;
+      this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.sportsbook.change;
+
+import com.sportsbook.model.dto.EventChanges;
+import com.sportsbook.model.entity.Event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent changes, in a ring buffer indexed by sequence number. Numbers are given out and
+ * the change stored under the same lock, so once a number can be seen every change up to it can
+ * be read, and a client polling from it never skips one that was committed a moment later.
+ *
+ * <p>Clients poll with a token made of the log's epoch and a sequence number. The epoch is random
+ * per log, so a token from before a restart or from another instance is always told apart, even
+ * where the sequence numbers of two instances overlap.
+ */
+class EventChangeLog {
+
+  private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+  private final EventChange[] changes;
+  // Before the first change logged; anything since an earlier number was never kept
+  private final long start;
+  private final Lock lock = new ReentrantLock();
+
+  private volatile long last;
+
+  EventChangeLog(long start, int capacity) {
+    this.changes = new EventChange[capacity];
+    this.start = start;
+    this.last = start;
+  }
+
+  EventChange append(EventChange.Type type, Event event, boolean remote) {
+    lock.lock();
+    try {
+      EventChange change = new EventChange(last + 1, type, event, remote);
+      changes[index(change.getSequence())] = change;
+      last = change.getSequence();
+      return change;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long last() {
+    return last;
+  }
+
+  /** The token to poll from for every change after {@code sequence}. */
+  String token(long sequence) {
+    return epoch + ":" + sequence;
+  }
+
+  /**
+   * Every event changed after the token's sequence, as of its newest change. A token this log did
+   * not give out, or one older than the oldest change kept, asks for a resync.
+   */
+  EventChanges since(String token) {
+    OptionalLong from = sequenceOf(token);
+    List<EventChange> newer = new ArrayList<>();
+    long to;
+    lock.lock();
+    try {
+      to = last;
+      long oldestKnown = Math.max(start, to - changes.length);
+      if (from.isEmpty() || from.getAsLong() < oldestKnown || from.getAsLong() > to) {
+        return EventChanges.resync(token(to));
+      }
+      for (long s = from.getAsLong() + 1; s <= to; s++) {
+        newer.add(changes[index(s)]);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // Newest change per event, in the order they last changed
+    Map<UUID, EventChange> newest = new LinkedHashMap<>();
+    for (EventChange change : newer) {
+      newest.remove(change.getEvent().getEventId());
+      newest.put(change.getEvent().getEventId(), change);
+    }
+    List<Event> events = new ArrayList<>();
+    List<UUID> archived = new ArrayList<>();
+    for (EventChange change : newest.values()) {
+      if (change.getType() == EventChange.Type.ARCHIVED) {
+        archived.add(change.getEvent().getEventId());
+      } else {
+        events.add(change.getEvent());
+      }
+    }
+    return new EventChanges(token(to), false, events, archived);
+  }
+
+  private OptionalLong sequenceOf(String token) {
+    String prefix = epoch + ":";
+    if (!token.startsWith(prefix)) {
+      return OptionalLong.empty();
+    }
+    try {
+      return OptionalLong.of(Long.parseLong(token.substring(prefix.length())));
+    } catch (NumberFormatException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  private int index(long sequence) {
+    return (int) Math.floorMod(sequence, (long) changes.length);
+  }
+}
@@ -0,0 +1,84 @@
+package com.sportsbook.change;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.model.dto.EventChanges;
+import com.sportsbook.model.entity.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single place committed event changes are announced from. The event cache is updated before the
+ * change gets its sequence number, so anything that observes a sequence number can also read the
+ * state it refers to.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EventChangePublisher {
+
+  private static final int DEFAULT_RETAINED = 10_000;
+
+  private final EventCache eventCache;
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  // Starts from the clock so that sequence numbers keep increasing across restarts, as clients
+  // hold on to them in entity tags
+  private final EventChangeLog changeLog;
+
+  public EventChangePublisher(
+      EventCache eventCache, ApplicationEventPublisher applicationEventPublisher) {
+    this(eventCache, applicationEventPublisher, DEFAULT_RETAINED);
+  }
+
+  @Autowired
+  public EventChangePublisher(
+      EventCache eventCache,
+      ApplicationEventPublisher applicationEventPublisher,
+      @Value("${scoreboard.changes.retained:10000}") int retained) {
+    this.eventCache = eventCache;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.changeLog = new EventChangeLog(System.currentTimeMillis() * 1000, retained);
+  }
+
+  public void created(Event event) {
+    publish(EventChange.Type.CREATED, event, false);
+  }
+
+  public void scoreUpdated(Event event) {
+    publish(EventChange.Type.SCORE_UPDATED, event, false);
+  }
+
+  public void statusUpdated(Event event) {
+    publish(EventChange.Type.STATUS_UPDATED, event, false);
+  }
+
+  public void archived(Event event) {
+    publish(EventChange.Type.ARCHIVED, event, false);
+  }
+
+  /** Announces a change another instance has committed, once it has been checked to be newer. */
+  public void remoteChange(EventChange.Type type, Event event) {
+    publish(type, event, true);
+  }
+
+  /** The token for the newest change, which names the current state of every event. */
+  public String currentToken() {
+    return changeLog.token(changeLog.last());
+  }
+
+  /** The events changed since a token from an earlier poll, for clients polling for changes. */
+  public EventChanges changesSince(String token) {
+    return changeLog.since(token);
+  }
+
+  private void publish(EventChange.Type type, Event event, boolean remote) {
+    if (type == EventChange.Type.ARCHIVED) {
+      eventCache.remove(event.getEventId());
+    } else {
+      eventCache.put(event);
+    }
+    applicationEventPublisher.publishEvent(changeLog.append(type, event.copy(), remote));
+  }
+}
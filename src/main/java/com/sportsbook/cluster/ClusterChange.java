@@ -0,0 +1,21 @@
+package com.sportsbook.cluster;
+
+import com.sportsbook.change.EventChange;
+import com.sportsbook.model.entity.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The payload of a change notification sent to the other instances of the cluster. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterChange {
+
+  // The instance that committed the change
+  private String nodeId;
+
+  private EventChange.Type type;
+
+  private Event event;
+}
@@ -0,0 +1,295 @@
+package com.sportsbook.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.change.EventChange;
+import com.sportsbook.change.EventChangePublisher;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import com.sportsbook.repository.EventRepository;
+import com.sportsbook.service.EventLocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the caches and change streams of several instances sharing one database in step.
+ *
+ * <p>Every change committed here is sent to the other instances with {@code pg_notify}, and a
+ * dedicated connection {@code LISTEN}s for theirs. A change from another instance is applied only
+ * if it is newer than what this instance already holds, by the same rule score updates use, so
+ * notifications that arrive late or twice cannot move an event backwards; a status only moves on.
+ * Postgres drops notifications sent while a listener is disconnected, so every (re)connect is
+ * followed by a pass over the table that picks up whatever was missed, archived events included.
+ *
+ * <p>Correctness of the stored scores does not depend on any of this: score updates lock the row
+ * they change, so instances order their writes in the database.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "scoreboard.cluster.enabled", havingValue = "true")
+public class ClusterChangeRelay {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClusterChangeRelay.class);
+
+  // LISTEN takes an identifier, not a parameter, so the name is checked before it is used
+  private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+  private static final int POLL_MILLIS = 500;
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final EventRepository eventRepository;
+  private final EventCache eventCache;
+  private final EventLocks eventLocks;
+  private final EventChangePublisher eventChanges;
+  private final ObjectMapper objectMapper;
+  private final String channel;
+  private final Duration reconnectDelay;
+
+  private final Counter sent;
+  private final Counter sendFailures;
+  private final Counter applied;
+  private final Counter ignored;
+
+  private volatile boolean running;
+  private Thread listener;
+
+  @Autowired
+  public ClusterChangeRelay(
+      DataSource dataSource,
+      EventRepository eventRepository,
+      EventCache eventCache,
+      EventLocks eventLocks,
+      EventChangePublisher eventChanges,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.cluster.channel:scoreboard_event_changes}") String channel,
+      @Value("${scoreboard.cluster.reconnect-delay:1s}") Duration reconnectDelay) {
+    if (!CHANNEL.matcher(channel).matches()) {
+      throw new IllegalArgumentException("Invalid scoreboard.cluster.channel: " + channel);
+    }
+    this.dataSource = dataSource;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.eventRepository = eventRepository;
+    this.eventCache = eventCache;
+    this.eventLocks = eventLocks;
+    this.eventChanges = eventChanges;
+    this.objectMapper = objectMapper;
+    this.channel = channel;
+    this.reconnectDelay = reconnectDelay;
+
+    sent = meterRegistry.counter("scoreboard.cluster.changes.sent");
+    sendFailures = meterRegistry.counter("scoreboard.cluster.changes.send.failures");
+    applied = meterRegistry.counter("scoreboard.cluster.changes.received", "result", "applied");
+    ignored = meterRegistry.counter("scoreboard.cluster.changes.received", "result", "ignored");
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    listener = new Thread(this::listen, "cluster-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    listener.join(2 * POLL_MILLIS);
+  }
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  // Runs on the thread that committed the change, after the commit, so other instances can read it
+  @EventListener
+  public void onChange(EventChange change) {
+    if (change.isRemote()) {
+      return;
+    }
+    try {
+      String payload =
+          objectMapper.writeValueAsString(
+              new ClusterChange(nodeId, change.getType(), change.getEvent()));
+      jdbcTemplate.execute(
+          "select pg_notify(?, ?)",
+          (PreparedStatementCallback<Boolean>)
+              statement -> {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                return statement.execute();
+              });
+      sent.increment();
+    } catch (JsonProcessingException | DataAccessException e) {
+      // Other instances pick the change up when their listener next reconnects
+      sendFailures.increment();
+      LOGGER.warn("Could not send change to event {}", change.getEvent().getEventId(), e);
+    }
+  }
+
+  /**
+   * Applies a change made elsewhere if it moves this instance's copy of the event forward: a newer
+   * score, a later status, or the event leaving the table.
+   */
+  public boolean apply(EventChange.Type type, Event event) {
+    Lock lock = eventLocks.lockFor(event.getEventId());
+    lock.lock();
+    try {
+      Optional<Event> current = eventCache.findCachedById(event.getEventId());
+      if (type == EventChange.Type.ARCHIVED) {
+        if (current.isEmpty()) {
+          ignored.increment();
+          return false;
+        }
+        eventChanges.remoteChange(type, event);
+      } else if (current.isEmpty()) {
+        eventChanges.remoteChange(type, event);
+      } else {
+        boolean newerScore = isNewer(event, current.get());
+        boolean laterStatus = current.get().getStatus().canMoveTo(event.getStatus());
+        if (!newerScore && !laterStatus) {
+          ignored.increment();
+          return false;
+        }
+        eventChanges.remoteChange(
+            laterStatus ? EventChange.Type.STATUS_UPDATED : EventChange.Type.SCORE_UPDATED,
+            merge(event, current.get(), newerScore, laterStatus));
+      }
+      applied.increment();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // A status change carries the score its instance held, which may be older than this one's
+  static Event merge(Event event, Event current, boolean newerScore, boolean laterStatus) {
+    Event merged = (newerScore ? event : current).copy();
+    Event status = laterStatus ? event : current;
+    merged.setStatus(status.getStatus());
+    merged.setFinishedAt(status.getFinishedAt());
+    return merged;
+  }
+
+  private void catchUp() {
+    Set<UUID> seen = new HashSet<>();
+    eventRepository.forEachEvent(
+        event -> {
+          seen.add(event.getEventId());
+          boolean known = eventCache.findCachedById(event.getEventId()).isPresent();
+          apply(known ? EventChange.Type.SCORE_UPDATED : EventChange.Type.CREATED, event);
+        });
+
+    // Only finished events are ever archived. Anything else missing from the pass was created
+    // after it started
+    List<Event> missing = new ArrayList<>();
+    eventCache.forEach(
+        event -> {
+          if (event.getStatus() == EventStatus.FINISHED && !seen.contains(event.getEventId())) {
+            missing.add(event);
+          }
+        });
+    for (Event event : missing) {
+      if (!eventRepository.existsById(event.getEventId())) {
+        apply(EventChange.Type.ARCHIVED, event);
+      }
+    }
+  }
+
+  // The same rule as a local score update, except that a score this instance already holds, such
+  // as one seen again while catching up, is not a change
+  static boolean isNewer(Event event, Event current) {
+    LocalDateTime updatedAt = event.getScoreLastUpdatedTimestamp();
+    return updatedAt != null
+        && current.acceptsScoreAt(updatedAt)
+        && !(updatedAt.equals(current.getScoreLastUpdatedTimestamp())
+            && event.getHomeTeamScore() == current.getHomeTeamScore()
+            && event.getAwayTeamScore() == current.getAwayTeamScore());
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        // Anything committed before LISTEN took effect was never delivered here. Without the cache
+        // reads go to the database anyway, and there is nothing to catch up on
+        if (eventCache.isEnabled()) {
+          catchUp();
+        }
+
+        PGConnection notifications = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] received = notifications.getNotifications(POLL_MILLIS);
+          if (received != null) {
+            for (PGNotification notification : received) {
+              receive(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException | RuntimeException e) {
+        if (running) {
+          LOGGER.warn("Lost the cluster change listener, reconnecting in {}", reconnectDelay, e);
+          pause();
+        }
+      }
+    }
+  }
+
+  private void receive(String payload) {
+    ClusterChange change;
+    try {
+      change = objectMapper.readValue(payload, ClusterChange.class);
+    } catch (JsonProcessingException e) {
+      LOGGER.warn("Ignoring unreadable change notification", e);
+      return;
+    }
+    if (!nodeId.equals(change.getNodeId())) {
+      apply(change.getType(), change.getEvent());
+    }
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(reconnectDelay.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
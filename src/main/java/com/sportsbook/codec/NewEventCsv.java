@@ -0,0 +1,137 @@
+package com.sportsbook.codec;
+
+import com.sportsbook.model.dto.NewEvent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads new events from CSV as described in RFC 4180. The first record is a header naming the
+ * columns, any of {@code matchTitle}, {@code homeTeamName} and {@code awayTeamName} in any order;
+ * other columns are ignored. Fields may be quoted, with {@code ""} for a quote inside a quoted field,
+ * and records may end in CRLF or LF.
+ *
+ * <p>Records are handed on as they are read, so a fixture list never has to be in memory twice.
+ */
+public final class NewEventCsv {
+
+  private NewEventCsv() {}
+
+  /** Reads every record after the header, throwing IllegalArgumentException if it is malformed. */
+  public static void read(Reader reader, Consumer<NewEvent> action) throws IOException {
+    Parser parser = new Parser(reader);
+    List<String> header = parser.nextRecord();
+    if (header == null) {
+      throw new IllegalArgumentException("The body needs a header record");
+    }
+    int matchTitle = header.indexOf("matchTitle");
+    int homeTeamName = header.indexOf("homeTeamName");
+    int awayTeamName = header.indexOf("awayTeamName");
+
+    List<String> record;
+    while ((record = parser.nextRecord()) != null) {
+      if (record.size() != header.size()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Record %d has %d fields, the header has %d",
+                parser.records - 1, record.size(), header.size()));
+      }
+      NewEvent newEvent = new NewEvent();
+      newEvent.setMatchTitle(field(record, matchTitle));
+      newEvent.setHomeTeamName(field(record, homeTeamName));
+      newEvent.setAwayTeamName(field(record, awayTeamName));
+      action.accept(newEvent);
+    }
+  }
+
+  private static String field(List<String> record, int index) {
+    return index < 0 ? null : record.get(index);
+  }
+
+  private static class Parser {
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int next;
+    private int records;
+
+    Parser(Reader reader) throws IOException {
+      this.reader = reader;
+      this.next = reader.read();
+    }
+
+    // Returns null at the end of the input; a blank line is skipped rather than read as a record
+    List<String> nextRecord() throws IOException {
+      while (next == '\r' || next == '\n') {
+        advance();
+      }
+      if (next < 0) {
+        return null;
+      }
+
+      List<String> record = new ArrayList<>();
+      while (true) {
+        record.add(nextField());
+        if (next == ',') {
+          advance();
+          continue;
+        }
+        if (next == '\r') {
+          advance();
+          if (next != '\n') {
+            throw new IllegalArgumentException(
+                String.format("Record %d has a CR without LF", records));
+          }
+        }
+        if (next == '\n') {
+          advance();
+        }
+        records++;
+        return record;
+      }
+    }
+
+    private String nextField() throws IOException {
+      field.setLength(0);
+      if (next != '"') {
+        while (next >= 0 && next != ',' && next != '\r' && next != '\n') {
+          if (next == '"') {
+            throw new IllegalArgumentException(
+                String.format("Record %d has a quote inside an unquoted field", records));
+          }
+          field.append((char) next);
+          advance();
+        }
+        return field.toString();
+      }
+
+      advance();
+      while (true) {
+        if (next < 0) {
+          throw new IllegalArgumentException(
+              String.format("Record %d has an unterminated quoted field", records));
+        }
+        if (next == '"') {
+          advance();
+          if (next != '"') {
+            break;
+          }
+        }
+        field.append((char) next);
+        advance();
+      }
+      if (next >= 0 && next != ',' && next != '\r' && next != '\n') {
+        throw new IllegalArgumentException(
+            String.format("Record %d has text after a closing quote", records));
+      }
+      return field.toString();
+    }
+
+    private void advance() throws IOException {
+      next = reader.read();
+    }
+  }
+}
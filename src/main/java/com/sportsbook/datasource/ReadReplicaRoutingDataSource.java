@@ -0,0 +1,49 @@
+package com.sportsbook.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections for reads marked by {@link ReplicaReads} that run in a read-only
+ * transaction while the replica is within its staleness bound, and primary connections for
+ * everything else.
+ *
+ * <p>The transaction is only known to be read-only after the transaction manager has asked for a
+ * connection, so this has to sit behind a {@link
+ * org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers the choice to
+ * the first statement.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target {
+    PRIMARY,
+    REPLICA
+  }
+
+  private final ReplicaReads replicaReads;
+  private final ReplicaLag replicaLag;
+
+  public ReadReplicaRoutingDataSource(
+      DataSource primary, DataSource replica, ReplicaReads replicaReads, ReplicaLag replicaLag) {
+    this.replicaReads = replicaReads;
+    this.replicaLag = replicaLag;
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!replicaReads.isActive()
+        || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return Target.PRIMARY;
+    }
+    // Too far behind, reads that could go to the replica fall back to the primary
+    Target target = replicaLag.isWithinBound() ? Target.REPLICA : Target.PRIMARY;
+    replicaReads.servedBy(target);
+    return target;
+  }
+}
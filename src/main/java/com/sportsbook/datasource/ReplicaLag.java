@@ -0,0 +1,68 @@
+package com.sportsbook.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * How far the read replica is behind the primary, checked on a fixed delay. Until the first check
+ * succeeds, and whenever the replica cannot be reached, it counts as too far behind.
+ */
+public class ReplicaLag implements MeterBinder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLag.class);
+
+  // A standby that has replayed everything it received is caught up, however long ago the last
+  // transaction was. A server that is not a standby is never behind
+  private static final String LAG_QUERY =
+      "select case"
+          + " when not pg_is_in_recovery() then 0"
+          + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+          + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)"
+          + " end";
+
+  private final JdbcTemplate replica;
+  private final double maxLagSeconds;
+
+  private volatile double lagSeconds = Double.NaN;
+
+  public ReplicaLag(DataSource replica, Duration maxLag) {
+    this.replica = new JdbcTemplate(replica);
+    this.replica.setQueryTimeout(1);
+    this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+  }
+
+  // Bound by the registry rather than registered here, as the registry itself needs the data source
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    Gauge.builder("scoreboard.replica.lag", this, lag -> lag.lagSeconds)
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${scoreboard.replica.lag-check-interval-ms:1000}")
+  public void check() {
+    try {
+      Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+      lagSeconds = lag == null ? Double.NaN : lag;
+    } catch (DataAccessException e) {
+      if (!Double.isNaN(lagSeconds)) {
+        LOGGER.warn("Could not check the read replica, reading from the primary", e);
+      }
+      lagSeconds = Double.NaN;
+    }
+  }
+
+  public boolean isWithinBound() {
+    // NaN compares false, so an unknown lag is out of bounds
+    return lagSeconds <= maxLagSeconds;
+  }
+}
@@ -0,0 +1,91 @@
+package com.sportsbook.datasource;
+
+import com.sportsbook.change.EventChange;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Marks the reads that may be served by the read replica. Nothing else goes there, so writes, and
+ * reads whose result is kept, such as loading the event cache, always see the primary.
+ *
+ * <p>An event changed in the last {@code scoreboard.replica.read-your-writes} is read from the
+ * primary, so a client that has just updated a score reads its own update back.
+ */
+public class ReplicaReads implements MeterBinder {
+
+  private final ThreadLocal<Boolean> active = ThreadLocal.withInitial(() -> false);
+  private final long readYourWritesNanos;
+
+  // Time of each event's last change, forgotten once the window has passed
+  private final Map<UUID, Long> recentWrites = new ConcurrentHashMap<>();
+
+  // Reads that could have gone to the replica, by where they were served
+  private final LongAdder fromReplica = new LongAdder();
+  private final LongAdder fromPrimary = new LongAdder();
+
+  public ReplicaReads(Duration readYourWrites) {
+    this.readYourWritesNanos = readYourWrites.toNanos();
+  }
+
+  /** Runs a read that may be served by the replica. */
+  public <T> T read(Supplier<T> read) {
+    if (active.get()) {
+      return read.get();
+    }
+    active.set(true);
+    try {
+      return read.get();
+    } finally {
+      active.remove();
+    }
+  }
+
+  /** Runs a read of one event, on the primary if the event was changed moments ago. */
+  public <T> T read(UUID eventId, Supplier<T> read) {
+    Long writtenAt = recentWrites.get(eventId);
+    if (writtenAt != null && System.nanoTime() - writtenAt < readYourWritesNanos) {
+      return read.get();
+    }
+    return read(read);
+  }
+
+  boolean isActive() {
+    return active.get();
+  }
+
+  void servedBy(ReadReplicaRoutingDataSource.Target target) {
+    (target == ReadReplicaRoutingDataSource.Target.REPLICA ? fromReplica : fromPrimary).increment();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    FunctionCounter.builder("scoreboard.replica.reads", fromReplica, LongAdder::sum)
+        .tag("source", "replica")
+        .register(meterRegistry);
+    FunctionCounter.builder("scoreboard.replica.reads", fromPrimary, LongAdder::sum)
+        .tag("source", "primary")
+        .register(meterRegistry);
+  }
+
+  // Changes from other instances count too, as they were written to the same primary
+  @EventListener
+  public void onChange(EventChange change) {
+    recentWrites.put(change.getEvent().getEventId(), System.nanoTime());
+  }
+
+  @Scheduled(fixedDelayString = "${scoreboard.replica.lag-check-interval-ms:1000}")
+  public void forgetOldWrites() {
+    long now = System.nanoTime();
+    recentWrites.values().removeIf(writtenAt -> now - writtenAt >= readYourWritesNanos);
+  }
+}
@@ -0,0 +1,173 @@
+package com.sportsbook.endpoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds how many requests are worked on at once, with separate limits for reads and writes, so a
+ * burst of one cannot starve the other. A request over the limit waits in a short bounded queue;
+ * when the queue is full, or the wait runs out, it is turned away at once with {@code 429} and a
+ * {@code Retry-After} header rather than piling up on event locks and the connection pool. Tomcat
+ * closes the connection after a {@code 503}, and under overload the reconnects cost more than the
+ * rejected requests, hence {@code 429}.
+ *
+ * <p>Event streams are long-lived and limited by {@code scoreboard.stream.max-subscribers}, so they
+ * are not counted here.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "scoreboard.admission.enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  private static final Set<HttpMethod> READS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD);
+  private static final Set<HttpMethod> WRITES =
+      EnumSet.of(HttpMethod.PUT, HttpMethod.POST, HttpMethod.PATCH, HttpMethod.DELETE);
+
+  private final Bulkhead reads;
+  private final Bulkhead writes;
+  private final String retryAfter;
+
+  @Autowired
+  public AdmissionControlFilter(
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.admission.reads.max-concurrent:100}") int readsMaxConcurrent,
+      @Value("${scoreboard.admission.reads.max-queued:100}") int readsMaxQueued,
+      @Value("${scoreboard.admission.reads.queue-timeout:100ms}") Duration readsQueueTimeout,
+      @Value("${scoreboard.admission.writes.max-concurrent:16}") int writesMaxConcurrent,
+      @Value("${scoreboard.admission.writes.max-queued:64}") int writesMaxQueued,
+      @Value("${scoreboard.admission.writes.queue-timeout:200ms}") Duration writesQueueTimeout,
+      @Value("${scoreboard.admission.retry-after:1s}") Duration retryAfter) {
+    this.reads =
+        new Bulkhead("read", readsMaxConcurrent, readsMaxQueued, readsQueueTimeout, meterRegistry);
+    this.writes =
+        new Bulkhead(
+            "write", writesMaxConcurrent, writesMaxQueued, writesQueueTimeout, meterRegistry);
+    // Retry-After takes whole seconds
+    this.retryAfter = Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return bulkheadFor(request) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Bulkhead bulkhead = bulkheadFor(request);
+    boolean admitted;
+    try {
+      admitted = bulkhead.enter();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      admitted = false;
+    }
+    if (!admitted) {
+      // No error page, so turning a request away costs next to nothing
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      bulkhead.leave();
+    }
+  }
+
+  private Bulkhead bulkheadFor(HttpServletRequest request) {
+    if (request.getRequestURI().endsWith("/stream")) {
+      return null;
+    }
+    HttpMethod method = HttpMethod.resolve(request.getMethod());
+    if (READS.contains(method)) {
+      return reads;
+    }
+    return WRITES.contains(method) ? writes : null;
+  }
+
+  static class Bulkhead {
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter rejected;
+    private final Timer queueWait;
+
+    Bulkhead(
+        String kind,
+        int maxConcurrent,
+        int maxQueued,
+        Duration queueTimeout,
+        MeterRegistry meterRegistry) {
+      this.permits = new Semaphore(maxConcurrent, true);
+      this.maxQueued = maxQueued;
+      this.queueTimeoutNanos = queueTimeout.toNanos();
+
+      rejected = meterRegistry.counter("scoreboard.admission.rejected", "kind", kind);
+      queueWait = meterRegistry.timer("scoreboard.admission.queue.wait", "kind", kind);
+      Gauge.builder(
+              "scoreboard.admission.active",
+              permits,
+              available -> maxConcurrent - available.availablePermits())
+          .tag("kind", kind)
+          .register(meterRegistry);
+      Gauge.builder("scoreboard.admission.queued", queued, AtomicInteger::get)
+          .tag("kind", kind)
+          .register(meterRegistry);
+    }
+
+    // Returns false if the request should be turned away
+    boolean enter() throws InterruptedException {
+      if (permits.tryAcquire()) {
+        return true;
+      }
+      if (queued.incrementAndGet() > maxQueued) {
+        queued.decrementAndGet();
+        rejected.increment();
+        return false;
+      }
+      long waitStart = System.nanoTime();
+      try {
+        if (permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+          return true;
+        }
+        rejected.increment();
+        return false;
+      } finally {
+        queued.decrementAndGet();
+        queueWait.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    void leave() {
+      permits.release();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.sportsbook.endpoint;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+
+/** Registers the binary score update format alongside JSON on whichever web stack is running. */
+@Configuration(proxyBeanMethods = false)
+public class BinaryScoreUpdateConfiguration {
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  public HttpMessageConverter<Object> binaryScoreUpdateConverter() {
+    return new BinaryScoreUpdateConverter();
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+  public CodecCustomizer binaryScoreUpdateCodecCustomizer() {
+    return configurer -> configurer.customCodecs().register(new BinaryScoreUpdateDecoder());
+  }
+}
@@ -0,0 +1,105 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.codec.ScoreUpdateCodec;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.UpdateScore;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Reads {@link ScoreUpdateCodec} request bodies into the same types the JSON bodies are bound to:
+ * one score update for {@code PUT /event/{eventId}}, a list of event score updates for {@code PUT
+ * /event/scores}. The body is read into one array sized from its Content-Length and decoded in
+ * place.
+ */
+class BinaryScoreUpdateConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+  private static final ResolvableType EVENT_SCORE_UPDATES =
+      ResolvableType.forClassWithGenerics(List.class, EventScoreUpdate.class);
+
+  private static final int MAX_BATCH_BYTES =
+      EventEndpoint.MAX_BATCH_SIZE * ScoreUpdateCodec.EVENT_SCORE_UPDATE_SIZE;
+
+  BinaryScoreUpdateConverter() {
+    super(ScoreUpdateCodec.MEDIA_TYPE);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return UpdateScore.class == clazz || List.class == clazz;
+  }
+
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return (isScoreUpdate(type) || isEventScoreUpdates(type)) && canRead(mediaType);
+  }
+
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+      throws IOException {
+    try {
+      if (isScoreUpdate(type)) {
+        byte[] body = readBody(inputMessage, ScoreUpdateCodec.SCORE_UPDATE_SIZE);
+        return ScoreUpdateCodec.decodeScoreUpdate(ByteBuffer.wrap(body));
+      }
+      byte[] body = readBody(inputMessage, MAX_BATCH_BYTES);
+      return ScoreUpdateCodec.decodeEventScoreUpdates(ByteBuffer.wrap(body));
+    } catch (IllegalArgumentException e) {
+      throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+    }
+  }
+
+  @Override
+  protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+    return read(clazz, null, inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(Object o, Type type, HttpOutputMessage outputMessage) {
+    // canWrite is always false, so Spring never gets here
+    throw new UnsupportedOperationException(
+        "Only reads " + ScoreUpdateCodec.MEDIA_TYPE_VALUE + " request bodies, never writes them");
+  }
+
+  private static boolean isScoreUpdate(Type type) {
+    return type == UpdateScore.class;
+  }
+
+  private static boolean isEventScoreUpdates(Type type) {
+    return EVENT_SCORE_UPDATES.isAssignableFrom(ResolvableType.forType(type));
+  }
+
+  private static byte[] readBody(HttpInputMessage inputMessage, int maxBytes) throws IOException {
+    long contentLength = inputMessage.getHeaders().getContentLength();
+    if (contentLength > maxBytes) {
+      throw new IllegalArgumentException(
+          String.format("The body can be at most %d bytes, got %d", maxBytes, contentLength));
+    }
+
+    InputStream body = inputMessage.getBody();
+    if (contentLength >= 0) {
+      return body.readNBytes((int) contentLength);
+    }
+    byte[] bytes = body.readNBytes(maxBytes + 1);
+    if (bytes.length > maxBytes) {
+      throw new IllegalArgumentException(
+          String.format("The body can be at most %d bytes", maxBytes));
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,80 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.codec.ScoreUpdateCodec;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.UpdateScore;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/** The WebFlux counterpart of {@link BinaryScoreUpdateConverter}. */
+class BinaryScoreUpdateDecoder extends AbstractDecoder<Object> {
+
+  private static final ResolvableType EVENT_SCORE_UPDATES =
+      ResolvableType.forClassWithGenerics(List.class, EventScoreUpdate.class);
+
+  private static final int MAX_BATCH_BYTES =
+      EventEndpoint.MAX_BATCH_SIZE * ScoreUpdateCodec.EVENT_SCORE_UPDATE_SIZE;
+
+  BinaryScoreUpdateDecoder() {
+    super(ScoreUpdateCodec.MEDIA_TYPE);
+  }
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+    return (isScoreUpdate(elementType) || EVENT_SCORE_UPDATES.isAssignableFrom(elementType))
+        && super.canDecode(elementType, mimeType);
+  }
+
+  @Override
+  public Flux<Object> decode(
+      Publisher<DataBuffer> input,
+      ResolvableType elementType,
+      MimeType mimeType,
+      Map<String, Object> hints) {
+    return Flux.from(decodeToMono(input, elementType, mimeType, hints));
+  }
+
+  @Override
+  public Mono<Object> decodeToMono(
+      Publisher<DataBuffer> input,
+      ResolvableType elementType,
+      MimeType mimeType,
+      Map<String, Object> hints) {
+    int maxBytes =
+        isScoreUpdate(elementType) ? ScoreUpdateCodec.SCORE_UPDATE_SIZE : MAX_BATCH_BYTES;
+    return DataBufferUtils.join(input, maxBytes)
+        .onErrorMap(
+            DataBufferLimitException.class,
+            e -> new DecodingException(String.format("The body can be at most %d bytes", maxBytes)))
+        .map(buffer -> decode(buffer, elementType));
+  }
+
+  private static Object decode(DataBuffer dataBuffer, ResolvableType elementType) {
+    try {
+      ByteBuffer buffer = dataBuffer.asByteBuffer();
+      return isScoreUpdate(elementType)
+          ? ScoreUpdateCodec.decodeScoreUpdate(buffer)
+          : ScoreUpdateCodec.decodeEventScoreUpdates(buffer);
+    } catch (IllegalArgumentException e) {
+      throw new DecodingException(e.getMessage(), e);
+    } finally {
+      DataBufferUtils.release(dataBuffer);
+    }
+  }
+
+  private static boolean isScoreUpdate(ResolvableType elementType) {
+    return elementType.resolve() == UpdateScore.class;
+  }
+}
@@ -0,0 +1,33 @@
+package com.sportsbook.endpoint;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/** Opaque page cursors: the last event id of a page, base64url encoded. */
+final class EventCursors {
+
+  private EventCursors() {}
+
+  static String encode(UUID eventId) {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    buffer.putLong(eventId.getMostSignificantBits());
+    buffer.putLong(eventId.getLeastSignificantBits());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  static UUID decode(String cursor) {
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+      if (buffer.remaining() != 16) {
+        throw new IllegalArgumentException();
+      }
+      return new UUID(buffer.getLong(), buffer.getLong());
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.model.entity.Event;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/** Strong entity tags for event responses, computed without serialising anything. */
+final class EventETags {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private EventETags() {}
+
+  // Any response listing events changes only when the change log or the cache moves on. The token
+  // carries the log's epoch, so a restarted instance never reuses a tag for a different list
+  static String forList(String changeToken, long cacheVersion) {
+    return "\"" + Long.toHexString(mix(mix(FNV_OFFSET_BASIS, changeToken), cacheVersion)) + "\"";
+  }
+
+  // A strong tag must differ between content codings, so the gzip body gets a tag of its own
+  static String forGzip(String eTag) {
+    return eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+  }
+
+  // 64-bit FNV-1a over every field that appears in the event's representation
+  static String forEvent(Event event) {
+    long hash = FNV_OFFSET_BASIS;
+    hash = mix(hash, event.getEventId());
+    hash = mix(hash, event.getMatchTitle());
+    hash = mix(hash, event.getHomeTeamName());
+    hash = mix(hash, event.getAwayTeamName());
+    hash = mix(hash, event.getHomeTeamScore());
+    hash = mix(hash, event.getAwayTeamScore());
+    hash = mix(hash, event.getScoreLastUpdatedTimestamp());
+    hash = mix(hash, event.getStatus());
+    hash = mix(hash, event.getFinishedAt());
+    return "\"" + Long.toHexString(hash) + "\"";
+  }
+
+  // For reads that do not come from the cache, where rows written outside the API never move the
+  // change sequence
+  static String forEvents(List<Event> events) {
+    long hash = FNV_OFFSET_BASIS;
+    for (Event event : events) {
+      hash = mix(hash, forEvent(event));
+    }
+    return "\"" + Long.toHexString(hash) + "\"";
+  }
+
+  static String forBody(byte[] body) {
+    return "\"" + Long.toHexString(mix(FNV_OFFSET_BASIS, body)) + "\"";
+  }
+
+  private static long mix(long hash, Object value) {
+    return mix(hash, Objects.toString(value).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static long mix(long hash, byte[] bytes) {
+    for (byte b : bytes) {
+      hash ^= (b & 0xff);
+      hash *= FNV_PRIME;
+    }
+    // Field separator, so that adjacent values cannot run into each other
+    hash ^= 0xff;
+    return hash * FNV_PRIME;
+  }
+}
@@ -1,39 +1,252 @@
 package com.sportsbook.endpoint;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.cache.SerializedEvent;
+import com.sportsbook.cache.SerializedEventList;
+import com.sportsbook.change.EventChangePublisher;
+import com.sportsbook.codec.NewEventCsv;
 import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventArchiveRepository;
 import com.sportsbook.repository.EventRepository;
+import com.sportsbook.model.dto.EventChanges;
+import com.sportsbook.model.dto.EventFilter;
+import com.sportsbook.model.dto.EventPage;
+import com.sportsbook.model.dto.EventScoreUpdate;
 import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.StatusUpdateResult;
 import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.dto.UpdateStatus;
+import com.sportsbook.service.ScoreService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/event")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EventEndpoint {
 
+  static final int MAX_PAGE_SIZE = 1000;
+  static final int MAX_BATCH_SIZE = 1000;
+  static final int MAX_BULK_SIZE = 50_000;
+
+  // The length of the event's text columns
+  private static final int MAX_NAME_LENGTH = 255;
+
   private final EventRepository eventRepository;
+  private final EventArchiveRepository eventArchiveRepository;
+  private final EventCache eventCache;
+  private final EventChangePublisher eventChanges;
+  private final ScoreService scoreService;
+  private final ObjectMapper objectMapper;
 
   @Autowired
-  public EventEndpoint(EventRepository eventRepository) {
+  public EventEndpoint(
+      EventRepository eventRepository,
+      EventArchiveRepository eventArchiveRepository,
+      EventCache eventCache,
+      EventChangePublisher eventChanges,
+      ScoreService scoreService,
+      ObjectMapper objectMapper) {
     this.eventRepository = eventRepository;
+    this.eventArchiveRepository = eventArchiveRepository;
+    this.eventCache = eventCache;
+    this.eventChanges = eventChanges;
+    this.scoreService = scoreService;
+    this.objectMapper = objectMapper;
   }
 
+  // The tag is taken before the events are read, so it is never newer than the response body.
+  // The body is the cache's prebuilt array, so a request only copies bytes
   @GetMapping
-  public List<Event> getAllEvents() {
-    return eventRepository.findAll();
+  public ResponseEntity<byte[]> getAllEvents(
+      @RequestParam(name = "team", required = false) String team,
+      @RequestParam(name = "matchTitle", required = false) String matchTitle,
+      @RequestParam(name = "updatedSince", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime updatedSince,
+      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      WebRequest webRequest) {
+    EventFilter filter = new EventFilter(team, matchTitle, updatedSince);
+    if (!eventCache.isEnabled()) {
+      return getAllEventsUncached(filter, webRequest);
+    }
+    boolean gzip = filter.isEmpty() && acceptsGzip(acceptEncoding);
+    if (checkListNotModified(webRequest, listETag(), gzip)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .varyBy(HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+
+    if (!filter.isEmpty()) {
+      return ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(eventCache.findMatchingJson(filter));
+    }
+
+    SerializedEventList events = eventCache.findAllSerialized();
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(events.getGzip());
+    }
+    return response.body(events.getJson());
+  }
+
+  // Read before the list itself, so the tag is never newer than the body it is sent with
+  private String listETag() {
+    return EventETags.forList(eventChanges.currentToken(), eventCache.version());
+  }
+
+  // Either coding's tag shows the client holds the current list, so either gets a 304, carrying
+  // the tag of the body this request would have been sent
+  private static boolean checkListNotModified(WebRequest webRequest, String eTag, boolean gzip) {
+    String gzipETag = EventETags.forGzip(eTag);
+    if (webRequest.checkNotModified(gzip ? gzipETag : eTag)) {
+      return true;
+    }
+    String otherETag = gzip ? eTag : gzipETag;
+    String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+    return ifNoneMatch != null
+        && Arrays.stream(ifNoneMatch).anyMatch(value -> value.contains(otherETag));
+  }
+
+  // Without the cache the list is read straight from Postgres, and rows written outside the API
+  // never move the change sequence, so the tag is taken from the body. The body is built per
+  // request, and compressing it as well would cost more
+  private ResponseEntity<byte[]> getAllEventsUncached(EventFilter filter, WebRequest webRequest) {
+    byte[] json =
+        filter.isEmpty()
+            ? eventCache.findAllSerialized().getJson()
+            : eventCache.findMatchingJson(filter);
+    if (webRequest.checkNotModified(EventETags.forBody(json))) {
+      return null;
+    }
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+  }
+
+  @GetMapping(params = "limit")
+  public EventPage getEventPage(
+      @RequestParam("limit") int limit,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      WebRequest webRequest) {
+    checkPageSize(limit);
+    boolean cached = eventCache.isEnabled();
+    if (cached && webRequest.checkNotModified(listETag())) {
+      return null;
+    }
+
+    UUID after = cursor == null ? null : EventCursors.decode(cursor);
+    List<Event> events = eventCache.findPage(after, limit + 1);
+    // As for the whole list, an uncached page is tagged by what it holds
+    if (!cached && webRequest.checkNotModified(EventETags.forEvents(events))) {
+      return null;
+    }
+    if (events.size() <= limit) {
+      return new EventPage(events, null);
+    }
+    events = events.subList(0, limit);
+    return new EventPage(events, EventCursors.encode(events.get(limit - 1).getEventId()));
+  }
+
+  // Writes the same array as getAllEvents one event at a time, so it never holds the whole list
+  @GetMapping(params = "stream=true")
+  public ResponseEntity<StreamingResponseBody> streamAllEvents() {
+    StreamingResponseBody body =
+        outputStream -> {
+          try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            eventCache.forEach(
+                event -> {
+                  try {
+                    objectMapper.writeValue(generator, event);
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+            generator.writeEndArray();
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  // Only reads the changes made since the client last polled, however many events there are
+  @GetMapping(path = "/changes")
+  public EventChanges getChanges(@RequestParam("since") String since) {
+    return eventChanges.changesSince(since);
   }
 
   @GetMapping(path = "/{eventId}")
-  public Event getEventById(@PathVariable("eventId") UUID eventId) {
-    return eventRepository
-        .findById(eventId)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+  public ResponseEntity<byte[]> getEventById(
+      @PathVariable("eventId") UUID eventId, WebRequest webRequest) {
+    Optional<SerializedEvent> event = eventCache.findSerializedById(eventId);
+    if (event.isEmpty()) {
+      return getArchivedEventById(eventId, webRequest);
+    }
+    if (webRequest.checkNotModified(EventETags.forEvent(event.get().getEvent()))) {
+      return null;
+    }
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(event.get().getJson());
+  }
+
+  // Archived events never change, so their tag holds for good
+  private ResponseEntity<byte[]> getArchivedEventById(UUID eventId, WebRequest webRequest) {
+    Event event =
+        eventArchiveRepository
+            .findById(eventId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    if (webRequest.checkNotModified(EventETags.forEvent(event))) {
+      return null;
+    }
+    try {
+      return ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(objectMapper.writeValueAsBytes(event));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @GetMapping(path = "/archive")
+  public List<Event> getArchivedEvents(
+      @RequestParam(name = "team", required = false) String team,
+      @RequestParam(name = "matchTitle", required = false) String matchTitle,
+      @RequestParam(name = "finishedBefore", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime finishedBefore,
+      @RequestParam(name = "limit", defaultValue = "100") int limit) {
+    checkPageSize(limit);
+    return eventArchiveRepository.findFinished(team, matchTitle, finishedBefore, limit);
   }
 
   @PostMapping
@@ -43,27 +256,177 @@ public class EventEndpoint {
     event.setHomeTeamName(newEvent.getHomeTeamName());
     event.setAwayTeamName(newEvent.getAwayTeamName());
     eventRepository.saveAndFlush(event);
+    eventChanges.created(event);
 
     return new ResponseEntity(HttpStatus.CREATED);
   }
 
-  // Has to wait for an update to finish before sending another (not concurrent)
+  @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<UUID>> createEvents(@RequestBody List<NewEvent> newEvents)
+      throws SQLException, IOException {
+    checkBulkSize(newEvents.size());
+    return createAll(newEvents);
+  }
+
+  @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<List<UUID>> createEventsFromNdjson(InputStream body)
+      throws SQLException, IOException {
+    List<NewEvent> newEvents = new ArrayList<>();
+    try (MappingIterator<NewEvent> lines =
+        objectMapper.readerFor(NewEvent.class).readValues(body)) {
+      while (lines.hasNextValue()) {
+        newEvents.add(lines.nextValue());
+        checkBulkSize(newEvents.size());
+      }
+    } catch (JsonProcessingException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getOriginalMessage());
+    }
+    return createAll(newEvents);
+  }
+
+  @PostMapping(path = "/bulk", consumes = "text/csv")
+  public ResponseEntity<List<UUID>> createEventsFromCsv(InputStream body)
+      throws SQLException, IOException {
+    List<NewEvent> newEvents = new ArrayList<>();
+    try {
+      NewEventCsv.read(
+          new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+          newEvent -> {
+            newEvents.add(newEvent);
+            checkBulkSize(newEvents.size());
+          });
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+    return createAll(newEvents);
+  }
+
   @PutMapping(path = "/{eventId}")
-  public synchronized void updateScore(
+  public void updateScore(
       @PathVariable("eventId") UUID eventId, @RequestBody UpdateScore updateScore) {
-    Event event =
-        eventRepository
-            .findById(eventId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    checkUpdateScore(updateScore);
+    if (scoreService.updateScore(eventId, updateScore) == ScoreUpdateResult.NOT_FOUND) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    }
+  }
+
+  @PutMapping(path = "/{eventId}/status")
+  public void updateStatus(
+      @PathVariable("eventId") UUID eventId, @RequestBody UpdateStatus updateStatus) {
+    if (updateStatus.getStatus() == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "status is required");
+    }
+    StatusUpdateResult result = scoreService.updateStatus(eventId, updateStatus.getStatus());
+    if (result == StatusUpdateResult.NOT_FOUND) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    }
+    if (result == StatusUpdateResult.NOT_ALLOWED) {
+      throw new ResponseStatusException(
+          HttpStatus.CONFLICT, "Events move from SCHEDULED to LIVE to FINISHED, never back");
+    }
+  }
+
+  @PutMapping(path = "/scores")
+  public List<ScoreUpdateOutcome> updateScores(@RequestBody List<EventScoreUpdate> updates) {
+    checkBatch(updates);
+    return scoreService.updateScores(updates);
+  }
 
-    if (event.getScoreLastUpdatedTimestamp() != null
-        && event.getScoreLastUpdatedTimestamp().isAfter(updateScore.getScoreValidAtTimestamp())) {
-      return;
+  // Ids are assigned here rather than on persist, so the response can list them in input order
+  // and the rows can go to Postgres in a single COPY
+  private ResponseEntity<List<UUID>> createAll(List<NewEvent> newEvents)
+      throws SQLException, IOException {
+    List<Event> events = new ArrayList<>(newEvents.size());
+    List<UUID> eventIds = new ArrayList<>(newEvents.size());
+    for (int i = 0; i < newEvents.size(); i++) {
+      NewEvent newEvent = newEvents.get(i);
+      checkNewEvent(i, newEvent);
+      Event event = new Event();
+      event.setEventId(UUID.randomUUID());
+      event.setMatchTitle(newEvent.getMatchTitle());
+      event.setHomeTeamName(newEvent.getHomeTeamName());
+      event.setAwayTeamName(newEvent.getAwayTeamName());
+      events.add(event);
+      eventIds.add(event.getEventId());
     }
 
-    event.setHomeTeamScore(updateScore.getHomeTeamScore());
-    event.setAwayTeamScore(updateScore.getAwayTeamScore());
-    event.setScoreLastUpdatedTimestamp(updateScore.getScoreValidAtTimestamp());
-    eventRepository.saveAndFlush(event);
+    eventRepository.copyAll(events);
+    events.forEach(eventChanges::created);
+    return ResponseEntity.status(HttpStatus.CREATED).body(eventIds);
+  }
+
+  // Anything listing gzip, unless it is explicitly refused with q=0
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+        continue;
+      }
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim();
+        if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  static void checkPageSize(int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format("limit must be between 1 and %d", MAX_PAGE_SIZE));
+    }
+  }
+
+  static void checkBulkSize(int size) {
+    if (size > MAX_BULK_SIZE) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          String.format("At most %d events can be created at once", MAX_BULK_SIZE));
+    }
+  }
+
+  static void checkNewEvent(int index, NewEvent newEvent) {
+    if (newEvent == null) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format("Event %d is null", index));
+    }
+    if (isTooLong(newEvent.getMatchTitle())
+        || isTooLong(newEvent.getHomeTeamName())
+        || isTooLong(newEvent.getAwayTeamName())) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          String.format("Event %d has a name longer than %d characters", index, MAX_NAME_LENGTH));
+    }
+  }
+
+  private static boolean isTooLong(String name) {
+    return name != null && name.length() > MAX_NAME_LENGTH;
+  }
+
+  static void checkUpdateScore(UpdateScore updateScore) {
+    if (updateScore.getScoreValidAtTimestamp() == null) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "A score update needs a scoreValidAtTimestamp");
+    }
+  }
+
+  static void checkBatch(List<EventScoreUpdate> updates) {
+    if (updates.size() > MAX_BATCH_SIZE) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          String.format("At most %d score updates can be sent at once", MAX_BATCH_SIZE));
+    }
+    for (EventScoreUpdate update : updates) {
+      if (update.getEventId() == null || update.getScoreValidAtTimestamp() == null) {
+        throw new ResponseStatusException(
+            HttpStatus.BAD_REQUEST, "Every score update needs an eventId and scoreValidAtTimestamp");
+      }
+    }
   }
 }
@@ -0,0 +1,45 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.change.EventChangeBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/event")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EventStreamEndpoint {
+
+  private final EventCache eventCache;
+  private final EventChangeBroadcaster eventChangeBroadcaster;
+
+  @Autowired
+  public EventStreamEndpoint(
+      EventCache eventCache, EventChangeBroadcaster eventChangeBroadcaster) {
+    this.eventCache = eventCache;
+    this.eventChangeBroadcaster = eventChangeBroadcaster;
+  }
+
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamAllChanges() {
+    return eventChangeBroadcaster.subscribe(null);
+  }
+
+  @GetMapping(path = "/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamEventChanges(@PathVariable("eventId") UUID eventId) {
+    if (eventCache.findById(eventId).isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    }
+    return eventChangeBroadcaster.subscribe(eventId);
+  }
+}
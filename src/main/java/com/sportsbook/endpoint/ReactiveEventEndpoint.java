@@ -0,0 +1,113 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.model.dto.EventPage;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.ReactiveEventRepository;
+import com.sportsbook.service.ReactiveScoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The same contract as {@link EventEndpoint}, on WebFlux and R2DBC. Used when the application runs
+ * as a reactive web application, which the {@code reactive} profile selects.
+ */
+@RestController
+@RequestMapping("/event")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventEndpoint {
+
+  private final ReactiveEventRepository eventRepository;
+  private final ReactiveScoreService scoreService;
+
+  @Autowired
+  public ReactiveEventEndpoint(
+      ReactiveEventRepository eventRepository, ReactiveScoreService scoreService) {
+    this.eventRepository = eventRepository;
+    this.scoreService = scoreService;
+  }
+
+  // Encoded as one JSON array, written as rows arrive from the database
+  @GetMapping
+  public Flux<Event> getAllEvents() {
+    return eventRepository.findAll();
+  }
+
+  @GetMapping(params = "limit")
+  public Mono<EventPage> getEventPage(
+      @RequestParam("limit") int limit,
+      @RequestParam(name = "cursor", required = false) String cursor) {
+    EventEndpoint.checkPageSize(limit);
+
+    UUID after = cursor == null ? null : EventCursors.decode(cursor);
+    return eventRepository
+        .findPage(after, limit + 1)
+        .collectList()
+        .map(
+            events -> {
+              if (events.size() <= limit) {
+                return new EventPage(events, null);
+              }
+              List<Event> page = events.subList(0, limit);
+              return new EventPage(page, EventCursors.encode(page.get(limit - 1).getEventId()));
+            });
+  }
+
+  @GetMapping(params = "stream=true")
+  public Flux<Event> streamAllEvents() {
+    return eventRepository.findAll();
+  }
+
+  @GetMapping(path = "/{eventId}")
+  public Mono<Event> getEventById(
+      @PathVariable("eventId") UUID eventId, ServerWebExchange exchange) {
+    return eventRepository
+        .findById(eventId)
+        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+        .filter(event -> !exchange.checkNotModified(EventETags.forEvent(event)));
+  }
+
+  @PostMapping
+  public Mono<ResponseEntity<Void>> createNewEvent(@RequestBody NewEvent newEvent) {
+    Event event = new Event();
+    event.setMatchTitle(newEvent.getMatchTitle());
+    event.setHomeTeamName(newEvent.getHomeTeamName());
+    event.setAwayTeamName(newEvent.getAwayTeamName());
+    return eventRepository
+        .insert(event)
+        .thenReturn(ResponseEntity.status(HttpStatus.CREATED).build());
+  }
+
+  @PutMapping(path = "/{eventId}")
+  public Mono<Void> updateScore(
+      @PathVariable("eventId") UUID eventId, @RequestBody UpdateScore updateScore) {
+    EventEndpoint.checkUpdateScore(updateScore);
+    return scoreService
+        .updateScore(eventId, updateScore)
+        .flatMap(
+            result ->
+                result == ScoreUpdateResult.NOT_FOUND
+                    ? Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND))
+                    : Mono.empty());
+  }
+
+  @PutMapping(path = "/scores")
+  public Mono<List<ScoreUpdateOutcome>> updateScores(@RequestBody List<EventScoreUpdate> updates) {
+    EventEndpoint.checkBatch(updates);
+    return scoreService.updateScores(updates);
+  }
+}
@@ -0,0 +1,58 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.model.dto.ScoreHistoryEntry;
+import com.sportsbook.repository.EventArchiveRepository;
+import com.sportsbook.repository.ScoreHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/event")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ScoreHistoryEndpoint {
+
+  private final EventCache eventCache;
+  private final EventArchiveRepository eventArchiveRepository;
+  private final ScoreHistoryRepository scoreHistoryRepository;
+
+  @Autowired
+  public ScoreHistoryEndpoint(
+      EventCache eventCache,
+      EventArchiveRepository eventArchiveRepository,
+      ScoreHistoryRepository scoreHistoryRepository) {
+    this.eventCache = eventCache;
+    this.eventArchiveRepository = eventArchiveRepository;
+    this.scoreHistoryRepository = scoreHistoryRepository;
+  }
+
+  @GetMapping(path = "/{eventId}/history")
+  public List<ScoreHistoryEntry> getScoreHistory(
+      @PathVariable("eventId") UUID eventId,
+      @RequestParam(name = "from", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @RequestParam(name = "to", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @RequestParam(name = "limit", defaultValue = "100") int limit) {
+    EventEndpoint.checkPageSize(limit);
+    if (eventCache.findById(eventId).isEmpty()
+        && eventArchiveRepository.findById(eventId).isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    }
+    return scoreHistoryRepository.findByEventId(eventId, from, to, limit);
+  }
+}
@@ -0,0 +1,322 @@
+package com.sportsbook.journal;
+
+import com.sportsbook.codec.ScoreUpdateCodec;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of accepted score updates, so write-behind updates survive the process dying
+ * before they reach Postgres.
+ *
+ * <p>The journal is a sequence of segment files. Each record is a {@link ScoreUpdateCodec} event
+ * score update followed by a CRC32 of it, so a record torn by a crash is detected and dropped on
+ * recovery. Writers append without waiting on each other and then wait for the data to reach the
+ * disk. One of them forces the file for everything appended so far while the rest wait, so under
+ * load many updates share each fsync.
+ *
+ * <p>Each flush to Postgres rolls over to a new segment first, and the earlier segments are deleted
+ * once that flush has committed.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(
+    name = {"scoreboard.write-behind.enabled", "scoreboard.write-behind.journal.enabled"},
+    havingValue = "true")
+public class ScoreJournal {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ScoreJournal.class);
+
+  static final int RECORD_SIZE = ScoreUpdateCodec.EVENT_SCORE_UPDATE_SIZE + Integer.BYTES;
+
+  private static final String SEGMENT_PREFIX = "scores-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private final Path directory;
+
+  // Guards the active segment and the closed list. Taken inside syncLock, never the other way. Not
+  // a monitor, as it is held while writing and forcing the file
+  private final Lock appendLock = new ReentrantLock();
+  private final List<Path> closed = new ArrayList<>();
+  private FileChannel active;
+  private long nextSegment;
+
+  // Positions count bytes appended over the journal's life, across segments
+  private long written;
+  private long activeStart;
+  // Set when a failed append could not be cleaned up, after which nothing more is appended
+  private IOException broken;
+
+  private final Lock syncLock = new ReentrantLock();
+  private final Condition syncDone = syncLock.newCondition();
+  private long synced;
+  private boolean syncing;
+
+  private final Counter syncs;
+  private final Counter recovered;
+
+  @Autowired
+  public ScoreJournal(
+      @Value("${scoreboard.write-behind.journal.directory:journal}") Path directory,
+      MeterRegistry meterRegistry)
+      throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.closed.addAll(listSegments());
+    this.nextSegment = closed.isEmpty() ? 0 : segmentNumber(closed.get(closed.size() - 1)) + 1;
+    this.active = openNextSegment();
+
+    syncs = meterRegistry.counter("scoreboard.write_behind.journal.syncs");
+    recovered = meterRegistry.counter("scoreboard.write_behind.journal.recovered");
+  }
+
+  /**
+   * Reads every intact record left by an earlier run, oldest first. A segment that ends in a torn
+   * or corrupt record is read up to it.
+   */
+  public List<EventScoreUpdate> recover() throws IOException {
+    List<Path> segments;
+    appendLock.lock();
+    try {
+      segments = new ArrayList<>(closed);
+    } finally {
+      appendLock.unlock();
+    }
+    List<EventScoreUpdate> updates = new ArrayList<>();
+    for (Path segment : segments) {
+      ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+      while (buffer.remaining() >= RECORD_SIZE) {
+        ByteBuffer record = buffer.slice().limit(ScoreUpdateCodec.EVENT_SCORE_UPDATE_SIZE);
+        buffer.position(buffer.position() + ScoreUpdateCodec.EVENT_SCORE_UPDATE_SIZE);
+        if (buffer.getInt() != checksum(record.duplicate())) {
+          break;
+        }
+        updates.add(ScoreUpdateCodec.decodeEventScoreUpdate(record));
+      }
+      if (buffer.hasRemaining()) {
+        LOGGER.warn("Dropped a torn record at the end of {}", segment);
+      }
+    }
+    recovered.increment(updates.size());
+    return updates;
+  }
+
+  /** Appends the update, returning the position to pass to {@link #awaitDurable(long)}. */
+  public long append(EventScoreUpdate update) throws IOException {
+    ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    ScoreUpdateCodec.encode(update, record);
+    record.putInt(checksum(record.duplicate().flip()));
+    record.flip();
+
+    appendLock.lock();
+    try {
+      if (broken != null) {
+        throw new IOException("The journal is unusable after a failed append", broken);
+      }
+      try {
+        while (record.hasRemaining()) {
+          active.write(record);
+        }
+      } catch (IOException e) {
+        discardPartialRecord(e);
+        throw e;
+      }
+      written += RECORD_SIZE;
+      return written;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /** The position just after the last record appended, by any thread. */
+  public long appendedPosition() {
+    appendLock.lock();
+    try {
+      return written;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /** Returns once everything appended up to the position is on disk. */
+  public void awaitDurable(long position) throws IOException {
+    syncLock.lock();
+    try {
+      while (synced < position) {
+        if (syncing) {
+          syncDone.awaitUninterruptibly();
+          continue;
+        }
+        syncing = true;
+        long target;
+        FileChannel channel;
+        appendLock.lock();
+        try {
+          target = written;
+          channel = active;
+        } finally {
+          appendLock.unlock();
+        }
+        // Appends carry on while the file is forced, and queue up for the next force
+        syncLock.unlock();
+        try {
+          channel.force(false);
+          syncs.increment();
+        } catch (ClosedChannelException e) {
+          // Rolled over meanwhile, and rollOver forced the segment before closing it
+        } finally {
+          syncLock.lock();
+          syncing = false;
+          syncDone.signalAll();
+        }
+        synced = Math.max(synced, target);
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Closes the active segment and starts a new one. Returns every closed segment, which can be
+   * deleted once all the updates appended before this call are stored elsewhere. An empty segment
+   * is kept rather than replaced.
+   */
+  public List<Path> rollOver() throws IOException {
+    long rolled;
+    List<Path> segments;
+    appendLock.lock();
+    try {
+      if (written == activeStart) {
+        return new ArrayList<>(closed);
+      }
+      switchSegment();
+      rolled = written;
+      segments = new ArrayList<>(closed);
+    } finally {
+      appendLock.unlock();
+    }
+    syncLock.lock();
+    try {
+      synced = Math.max(synced, rolled);
+      syncDone.signalAll();
+    } finally {
+      syncLock.unlock();
+    }
+    return segments;
+  }
+
+  public void delete(List<Path> segments) throws IOException {
+    appendLock.lock();
+    try {
+      for (Path segment : segments) {
+        Files.deleteIfExists(segment);
+        closed.remove(segment);
+      }
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    appendLock.lock();
+    try {
+      active.force(false);
+      active.close();
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  // A record left half written would hide every record appended after it in the segment on
+  // recovery. It is cut off, or if that fails, later records go to a new segment. Called holding
+  // appendLock
+  private void discardPartialRecord(IOException failure) {
+    try {
+      active.truncate(written - activeStart);
+      return;
+    } catch (IOException e) {
+      failure.addSuppressed(e);
+    }
+    try {
+      switchSegment();
+    } catch (IOException e) {
+      failure.addSuppressed(e);
+      broken = failure;
+    }
+  }
+
+  // Forced before closing, as awaitDurable treats a closed channel as synced. Called holding
+  // appendLock
+  private void switchSegment() throws IOException {
+    active.force(false);
+    active.close();
+    closed.add(segmentPath(nextSegment - 1));
+    active = openNextSegment();
+    activeStart = written;
+  }
+
+  private FileChannel openNextSegment() throws IOException {
+    Path segment = segmentPath(nextSegment++);
+    FileChannel channel =
+        FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    // Forcing the file later does not make its directory entry durable, so without this a power
+    // cut could lose the whole segment, synced records and all
+    try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      directoryChannel.force(true);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel;
+  }
+
+  private Path segmentPath(long number) {
+    return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static long segmentNumber(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static int checksum(ByteBuffer record) {
+    CRC32 crc = new CRC32();
+    crc.update(record);
+    return (int) crc.getValue();
+  }
+}
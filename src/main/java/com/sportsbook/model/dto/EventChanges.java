@@ -0,0 +1,31 @@
+package com.sportsbook.model.dto;
+
+import com.sportsbook.model.entity.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventChanges {
+
+  // Pass as since on the next poll. Opaque, and only understood by the instance that gave it out
+  private String next;
+
+  // The changes asked for are no longer kept, so the client has to read every event again
+  private boolean resyncRequired;
+
+  // Events created or changed, each once, as they are now
+  private List<Event> events;
+
+  // Events that moved to the archive, and so no longer appear in GET /event
+  private List<UUID> archived;
+
+  public static EventChanges resync(String next) {
+    return new EventChanges(next, true, List.of(), List.of());
+  }
+}
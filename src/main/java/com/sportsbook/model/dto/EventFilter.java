@@ -0,0 +1,37 @@
+package com.sportsbook.model.dto;
+
+import com.sportsbook.model.entity.Event;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/** Narrows the event list; every criterion given must match, and a null one matches anything. */
+@Value
+public class EventFilter {
+
+  // Either side of the match
+  String team;
+
+  String matchTitle;
+
+  // Inclusive
+  LocalDateTime updatedSince;
+
+  public boolean isEmpty() {
+    return team == null && matchTitle == null && updatedSince == null;
+  }
+
+  public boolean matches(Event event) {
+    if (team != null
+        && !team.equals(event.getHomeTeamName())
+        && !team.equals(event.getAwayTeamName())) {
+      return false;
+    }
+    if (matchTitle != null && !matchTitle.equals(event.getMatchTitle())) {
+      return false;
+    }
+    return updatedSince == null
+        || (event.getScoreLastUpdatedTimestamp() != null
+            && !event.getScoreLastUpdatedTimestamp().isBefore(updatedSince));
+  }
+}
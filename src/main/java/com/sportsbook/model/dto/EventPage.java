@@ -0,0 +1,19 @@
+package com.sportsbook.model.dto;
+
+import com.sportsbook.model.entity.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventPage {
+
+  private List<Event> events;
+
+  // Absent on the last page
+  private String nextCursor;
+}
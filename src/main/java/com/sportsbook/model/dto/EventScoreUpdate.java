@@ -0,0 +1,15 @@
+package com.sportsbook.model.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.UUID;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class EventScoreUpdate extends UpdateScore {
+
+  private UUID eventId;
+}
@@ -0,0 +1,33 @@
+package com.sportsbook.model.dto;
+
+import com.sportsbook.model.entity.EventStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only projection of an event with the same JSON shape, for queries whose results are only
+ * ever written out, so Hibernate neither manages nor snapshots them.
+ */
+@Value
+public class EventSummary {
+
+  UUID eventId;
+
+  String matchTitle;
+
+  String homeTeamName;
+
+  String awayTeamName;
+
+  int homeTeamScore;
+
+  int awayTeamScore;
+
+  LocalDateTime scoreLastUpdatedTimestamp;
+
+  EventStatus status;
+
+  LocalDateTime finishedAt;
+}
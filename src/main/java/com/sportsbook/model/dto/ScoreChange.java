@@ -0,0 +1,31 @@
+package com.sportsbook.model.dto;
+
+import com.sportsbook.model.entity.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreChange {
+
+  private UUID eventId;
+
+  private int homeTeamScore;
+
+  private int awayTeamScore;
+
+  private LocalDateTime scoreLastUpdatedTimestamp;
+
+  public static ScoreChange of(Event event) {
+    return new ScoreChange(
+        event.getEventId(),
+        event.getHomeTeamScore(),
+        event.getAwayTeamScore(),
+        event.getScoreLastUpdatedTimestamp());
+  }
+}
@@ -0,0 +1,27 @@
+package com.sportsbook.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreHistoryEntry {
+
+  private UUID eventId;
+
+  private int homeTeamScore;
+
+  private int awayTeamScore;
+
+  private LocalDateTime scoreValidAtTimestamp;
+
+  private LocalDateTime receivedTimestamp;
+
+  // The event already had a newer score, so this one was recorded but not applied
+  private boolean stale;
+}
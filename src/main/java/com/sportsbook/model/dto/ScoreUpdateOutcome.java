@@ -0,0 +1,17 @@
+package com.sportsbook.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreUpdateOutcome {
+
+  private UUID eventId;
+
+  private ScoreUpdateResult result;
+}
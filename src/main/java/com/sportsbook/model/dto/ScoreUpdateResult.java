@@ -0,0 +1,8 @@
+package com.sportsbook.model.dto;
+
+public enum ScoreUpdateResult {
+  APPLIED,
+  // The event already has a score that is valid at a later time
+  STALE,
+  NOT_FOUND
+}
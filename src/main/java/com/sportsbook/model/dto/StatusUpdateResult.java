@@ -0,0 +1,10 @@
+package com.sportsbook.model.dto;
+
+public enum StatusUpdateResult {
+  APPLIED,
+  // The event already has that status
+  UNCHANGED,
+  // The event is already past that status
+  NOT_ALLOWED,
+  NOT_FOUND
+}
@@ -0,0 +1,10 @@
+package com.sportsbook.model.dto;
+
+import com.sportsbook.model.entity.EventStatus;
+import lombok.Data;
+
+@Data
+public class UpdateStatus {
+
+  private EventStatus status;
+}
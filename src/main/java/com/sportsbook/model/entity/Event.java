@@ -1,6 +1,7 @@
 package com.sportsbook.model.entity;
 
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -8,6 +9,14 @@ import java.util.UUID;
 
 @Data
 @Entity
+@Table(
+    indexes = {
+      @Index(name = "event_match_title", columnList = "matchTitle"),
+      @Index(name = "event_home_team_name", columnList = "homeTeamName"),
+      @Index(name = "event_away_team_name", columnList = "awayTeamName"),
+      @Index(name = "event_score_last_updated_timestamp", columnList = "scoreLastUpdatedTimestamp"),
+      @Index(name = "event_finished_at", columnList = "finishedAt")
+    })
 public class Event {
 
   @Id
@@ -26,6 +35,35 @@ public class Event {
 
   @Column private LocalDateTime scoreLastUpdatedTimestamp;
 
+  // The default also fills in rows that were written before the column existed
+  @Enumerated(EnumType.STRING)
+  @ColumnDefault("'SCHEDULED'")
+  @Column(nullable = false, length = 16)
+  private EventStatus status = EventStatus.SCHEDULED;
+
+  // Set when the event finishes; it is archived a configured delay after this
+  @Column private LocalDateTime finishedAt;
+
+  // A score timestamped the same as the current one replaces it, as the later arrival
+  public boolean acceptsScoreAt(LocalDateTime timestamp) {
+    return scoreLastUpdatedTimestamp == null || !scoreLastUpdatedTimestamp.isAfter(timestamp);
+  }
+
+  // Detached copy, safe to hand to other threads while this instance keeps changing
+  public Event copy() {
+    Event copy = new Event();
+    copy.setEventId(eventId);
+    copy.setMatchTitle(matchTitle);
+    copy.setHomeTeamName(homeTeamName);
+    copy.setAwayTeamName(awayTeamName);
+    copy.setHomeTeamScore(homeTeamScore);
+    copy.setAwayTeamScore(awayTeamScore);
+    copy.setScoreLastUpdatedTimestamp(scoreLastUpdatedTimestamp);
+    copy.setStatus(status);
+    copy.setFinishedAt(finishedAt);
+    return copy;
+  }
+
   @PrePersist
   private void assignEventId() {
     eventId = UUID.randomUUID();
@@ -0,0 +1,12 @@
+package com.sportsbook.model.entity;
+
+/** Where an event is in its lifecycle. An event only ever moves forward through these. */
+public enum EventStatus {
+  SCHEDULED,
+  LIVE,
+  FINISHED;
+
+  public boolean canMoveTo(EventStatus next) {
+    return next.ordinal() > ordinal();
+  }
+}
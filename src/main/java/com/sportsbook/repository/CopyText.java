@@ -0,0 +1,35 @@
+package com.sportsbook.repository;
+
+/** Writes values in the text format of Postgres {@code COPY ... from stdin}. */
+final class CopyText {
+
+  private CopyText() {}
+
+  // \N for null, and backslash escapes for the delimiters
+  static StringBuilder append(StringBuilder rows, Object value) {
+    if (value == null) {
+      return rows.append("\\N");
+    }
+    String text = value.toString();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\\':
+          rows.append("\\\\");
+          break;
+        case '\t':
+          rows.append("\\t");
+          break;
+        case '\n':
+          rows.append("\\n");
+          break;
+        case '\r':
+          rows.append("\\r");
+          break;
+        default:
+          rows.append(c);
+      }
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,115 @@
+package com.sportsbook.repository;
+
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC over {@code scoreboard.event_archive}, which holds finished events once they have been
+ * moved out of {@code scoreboard.event}.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EventArchiveRepository {
+
+  private static final String COLUMNS =
+      "event_id, match_title, home_team_name, away_team_name, home_team_score, away_team_score,"
+          + " score_last_updated_timestamp, status, finished_at";
+
+  // One statement, so an event is always in exactly one of the two tables. Rows another
+  // transaction has locked are left for the next run rather than waited on
+  private static final String ARCHIVE =
+      "with moved as ("
+          + " delete from scoreboard.event where event_id in ("
+          + " select event_id from scoreboard.event"
+          + " where status = 'FINISHED' and finished_at < :finishedBefore"
+          + " order by finished_at limit :limit for update skip locked)"
+          + " returning "
+          + COLUMNS
+          + ")"
+          + " insert into scoreboard.event_archive ("
+          + COLUMNS
+          + ", archived_at) select "
+          + COLUMNS
+          + ", now() from moved returning "
+          + COLUMNS;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public EventArchiveRepository(DataSource dataSource) {
+    this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+  }
+
+  /** Moves up to {@code limit} events finished before the given time, returning the moved events. */
+  public List<Event> archiveFinishedBefore(LocalDateTime finishedBefore, int limit) {
+    return jdbcTemplate.query(
+        ARCHIVE,
+        new MapSqlParameterSource("finishedBefore", finishedBefore).addValue("limit", limit),
+        EventArchiveRepository::toEvent);
+  }
+
+  public Optional<Event> findById(UUID eventId) {
+    return jdbcTemplate
+        .query(
+            "select " + COLUMNS + " from scoreboard.event_archive where event_id = :eventId",
+            new MapSqlParameterSource("eventId", eventId),
+            EventArchiveRepository::toEvent)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Returns up to {@code limit} archived events, most recently finished first, matching every
+   * criterion given. {@code finishedBefore} is exclusive, so the last event's finish time fetches
+   * the next page.
+   */
+  public List<Event> findFinished(
+      String team, String matchTitle, LocalDateTime finishedBefore, int limit) {
+    StringBuilder sql =
+        new StringBuilder("select " + COLUMNS + " from scoreboard.event_archive where true");
+    MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit);
+    if (team != null) {
+      sql.append(" and (home_team_name = :team or away_team_name = :team)");
+      parameters.addValue("team", team);
+    }
+    if (matchTitle != null) {
+      sql.append(" and match_title = :matchTitle");
+      parameters.addValue("matchTitle", matchTitle);
+    }
+    if (finishedBefore != null) {
+      sql.append(" and finished_at < :finishedBefore");
+      parameters.addValue("finishedBefore", finishedBefore);
+    }
+    sql.append(" order by finished_at desc limit :limit");
+
+    return jdbcTemplate.query(sql.toString(), parameters, EventArchiveRepository::toEvent);
+  }
+
+  private static Event toEvent(ResultSet row, int rowNum) throws SQLException {
+    Event event = new Event();
+    event.setEventId(row.getObject("event_id", UUID.class));
+    event.setMatchTitle(row.getString("match_title"));
+    event.setHomeTeamName(row.getString("home_team_name"));
+    event.setAwayTeamName(row.getString("away_team_name"));
+    event.setHomeTeamScore(row.getInt("home_team_score"));
+    event.setAwayTeamScore(row.getInt("away_team_score"));
+    event.setScoreLastUpdatedTimestamp(
+        row.getObject("score_last_updated_timestamp", LocalDateTime.class));
+    event.setStatus(EventStatus.valueOf(row.getString("status")));
+    event.setFinishedAt(row.getObject("finished_at", LocalDateTime.class));
+    return event;
+  }
+}
@@ -0,0 +1,23 @@
+package com.sportsbook.repository;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+public final class EventIds {
+
+  /**
+   * Orders event ids the way Postgres orders its {@code uuid} type (unsigned, byte by byte), which
+   * is not the same as {@link UUID#compareTo(UUID)}. Keyset pages served from memory must follow the
+   * same order as pages served by the database.
+   */
+  public static final Comparator<UUID> DATABASE_ORDER =
+      (first, second) -> {
+        int compared =
+            Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return compared != 0
+            ? compared
+            : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+      };
+
+  private EventIds() {}
+}
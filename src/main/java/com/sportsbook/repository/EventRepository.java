@@ -1,9 +1,49 @@
 package com.sportsbook.repository;
 
 import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface EventRepository extends JpaRepository<Event, UUID> {
+public interface EventRepository extends JpaRepository<Event, UUID>, EventRepositoryCustom {
+
+  // Read-only, like the inherited finders, so a read replica can serve them
+  @Transactional(readOnly = true)
+  @Query("select e from Event e order by e.eventId")
+  List<Event> findFirstPage(Pageable pageable);
+
+  @Transactional(readOnly = true)
+  @Query("select e from Event e where e.eventId > :after order by e.eventId")
+  List<Event> findPageAfter(@Param("after") UUID after, Pageable pageable);
+
+  // Row locks for writers on different instances; taken in id order so two batches cannot deadlock
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select e from Event e where e.eventId = :eventId")
+  Optional<Event> findByIdForUpdate(@Param("eventId") UUID eventId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select e from Event e where e.eventId in :eventIds order by e.eventId")
+  List<Event> findAllByIdForUpdate(@Param("eventIds") Collection<UUID> eventIds);
+
+  // Leaves the score columns alone, as write-behind may not have written the newest score yet
+  @Modifying
+  @Query(
+      "update Event e set e.status = :status, e.finishedAt = :finishedAt"
+          + " where e.eventId = :eventId")
+  int updateStatus(
+      @Param("eventId") UUID eventId,
+      @Param("status") EventStatus status,
+      @Param("finishedAt") LocalDateTime finishedAt);
 }
@@ -0,0 +1,28 @@
+package com.sportsbook.repository;
+
+import com.sportsbook.model.dto.EventFilter;
+import com.sportsbook.model.dto.EventSummary;
+import com.sportsbook.model.entity.Event;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface EventRepositoryCustom {
+
+  /**
+   * Reads every event through a database cursor, in event id order, detaching each one once it has
+   * been handed to the action so memory use does not grow with the size of the table.
+   */
+  void forEachEvent(Consumer<Event> action);
+
+  /**
+   * Inserts events that already have their ids in one COPY, which commits on its own and inserts
+   * either all of them or none.
+   */
+  long copyAll(List<Event> events) throws SQLException, IOException;
+
+  /** Returns the events matching every criterion of the filter, in event id order. */
+  List<EventSummary> findAllMatching(EventFilter filter);
+}
@@ -0,0 +1,110 @@
+package com.sportsbook.repository;
+
+import com.sportsbook.model.dto.EventFilter;
+import com.sportsbook.model.dto.EventSummary;
+import com.sportsbook.model.entity.Event;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+  private static final int FETCH_SIZE = 500;
+
+  private static final String COPY =
+      "copy scoreboard.event (event_id, match_title, home_team_name, away_team_name,"
+          + " home_team_score, away_team_score, score_last_updated_timestamp) from stdin";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Autowired private DataSource dataSource;
+
+  @Override
+  @Transactional(readOnly = true)
+  public void forEachEvent(Consumer<Event> action) {
+    try (Stream<Event> events =
+        entityManager
+            .createQuery("select e from Event e order by e.eventId", Event.class)
+            .setHint(HINT_FETCH_SIZE, FETCH_SIZE)
+            .setHint(HINT_READONLY, true)
+            .getResultStream()) {
+      events.forEach(
+          event -> {
+            action.accept(event);
+            entityManager.detach(event);
+          });
+    }
+  }
+
+  // Only the criteria given make it into the query, so each can use its own index
+  @Override
+  @Transactional(readOnly = true)
+  public List<EventSummary> findAllMatching(EventFilter filter) {
+    StringBuilder jpql =
+        new StringBuilder(
+            "select new com.sportsbook.model.dto.EventSummary(e.eventId, e.matchTitle,"
+                + " e.homeTeamName, e.awayTeamName, e.homeTeamScore, e.awayTeamScore,"
+                + " e.scoreLastUpdatedTimestamp, e.status, e.finishedAt)"
+                + " from Event e where 1 = 1");
+    if (filter.getTeam() != null) {
+      jpql.append(" and (e.homeTeamName = :team or e.awayTeamName = :team)");
+    }
+    if (filter.getMatchTitle() != null) {
+      jpql.append(" and e.matchTitle = :matchTitle");
+    }
+    if (filter.getUpdatedSince() != null) {
+      jpql.append(" and e.scoreLastUpdatedTimestamp >= :updatedSince");
+    }
+    // The same order as the cache returns them in
+    jpql.append(" order by e.eventId");
+
+    TypedQuery<EventSummary> query =
+        entityManager.createQuery(jpql.toString(), EventSummary.class);
+    if (filter.getTeam() != null) {
+      query.setParameter("team", filter.getTeam());
+    }
+    if (filter.getMatchTitle() != null) {
+      query.setParameter("matchTitle", filter.getMatchTitle());
+    }
+    if (filter.getUpdatedSince() != null) {
+      query.setParameter("updatedSince", filter.getUpdatedSince());
+    }
+    return query.setHint(HINT_FETCH_SIZE, FETCH_SIZE).getResultList();
+  }
+
+  @Override
+  public long copyAll(List<Event> events) throws SQLException, IOException {
+    StringBuilder rows = new StringBuilder(events.size() * 128);
+    for (Event event : events) {
+      rows.append(event.getEventId()).append('\t');
+      CopyText.append(rows, event.getMatchTitle()).append('\t');
+      CopyText.append(rows, event.getHomeTeamName()).append('\t');
+      CopyText.append(rows, event.getAwayTeamName()).append('\t');
+      rows.append(event.getHomeTeamScore()).append('\t');
+      rows.append(event.getAwayTeamScore()).append('\t');
+      CopyText.append(rows, event.getScoreLastUpdatedTimestamp()).append('\n');
+    }
+
+    try (Connection connection = dataSource.getConnection()) {
+      return connection
+          .unwrap(PGConnection.class)
+          .getCopyAPI()
+          .copyIn(COPY, new StringReader(rows.toString()));
+    }
+  }
+}
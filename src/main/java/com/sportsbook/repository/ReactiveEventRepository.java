@@ -0,0 +1,130 @@
+package com.sportsbook.repository;
+
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reads and writes the same {@code scoreboard.event} table as {@link EventRepository}, over R2DBC
+ * so that no thread waits on the database.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventRepository {
+
+  private static final String INSERT_COLUMNS =
+      "event_id, match_title, home_team_name, away_team_name, home_team_score, away_team_score,"
+          + " score_last_updated_timestamp, status";
+
+  private static final String COLUMNS = INSERT_COLUMNS + ", finished_at";
+
+  private final DatabaseClient databaseClient;
+
+  @Autowired
+  public ReactiveEventRepository(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  public Flux<Event> findAll() {
+    return databaseClient
+        .sql("select " + COLUMNS + " from scoreboard.event order by event_id")
+        .map(ReactiveEventRepository::toEvent)
+        .all();
+  }
+
+  public Flux<Event> findPage(UUID after, int limit) {
+    DatabaseClient.GenericExecuteSpec query =
+        after == null
+            ? databaseClient.sql(
+                "select " + COLUMNS + " from scoreboard.event order by event_id limit :limit")
+            : databaseClient
+                .sql(
+                    "select "
+                        + COLUMNS
+                        + " from scoreboard.event where event_id > :after"
+                        + " order by event_id limit :limit")
+                .bind("after", after);
+    return query.bind("limit", limit).map(ReactiveEventRepository::toEvent).all();
+  }
+
+  public Mono<Event> findById(UUID eventId) {
+    return databaseClient
+        .sql("select " + COLUMNS + " from scoreboard.event where event_id = :eventId")
+        .bind("eventId", eventId)
+        .map(ReactiveEventRepository::toEvent)
+        .one();
+  }
+
+  public Mono<Boolean> existsById(UUID eventId) {
+    return databaseClient
+        .sql("select 1 from scoreboard.event where event_id = :eventId")
+        .bind("eventId", eventId)
+        .map(row -> true)
+        .one()
+        .defaultIfEmpty(false);
+  }
+
+  public Mono<Event> insert(Event event) {
+    event.setEventId(UUID.randomUUID());
+    return databaseClient
+        .sql(
+            "insert into scoreboard.event ("
+                + INSERT_COLUMNS
+                + ") values (:eventId, :matchTitle, :homeTeamName, :awayTeamName, 0, 0, null,"
+                + " 'SCHEDULED')")
+        .bind("eventId", event.getEventId())
+        .bind("matchTitle", Parameter.fromOrEmpty(event.getMatchTitle(), String.class))
+        .bind("homeTeamName", Parameter.fromOrEmpty(event.getHomeTeamName(), String.class))
+        .bind("awayTeamName", Parameter.fromOrEmpty(event.getAwayTeamName(), String.class))
+        .then()
+        .thenReturn(event);
+  }
+
+  /**
+   * Applies the score unless the event already has one valid at a later time, in a single
+   * statement, so concurrent updates need no lock of our own. Emits {@code false} if nothing was
+   * updated, because the update was stale or the event does not exist.
+   */
+  public Mono<Boolean> updateScoreIfNewer(UUID eventId, UpdateScore updateScore) {
+    return databaseClient
+        .sql(
+            "update scoreboard.event"
+                + " set home_team_score = :home, away_team_score = :away,"
+                + " score_last_updated_timestamp = :validAt"
+                + " where event_id = :eventId"
+                + " and (score_last_updated_timestamp is null"
+                + " or score_last_updated_timestamp <= :validAt)")
+        .bind("home", updateScore.getHomeTeamScore())
+        .bind("away", updateScore.getAwayTeamScore())
+        .bind("validAt", updateScore.getScoreValidAtTimestamp())
+        .bind("eventId", eventId)
+        .fetch()
+        .rowsUpdated()
+        .map(rows -> rows > 0);
+  }
+
+  private static Event toEvent(Row row) {
+    Event event = new Event();
+    event.setEventId(row.get("event_id", UUID.class));
+    event.setMatchTitle(row.get("match_title", String.class));
+    event.setHomeTeamName(row.get("home_team_name", String.class));
+    event.setAwayTeamName(row.get("away_team_name", String.class));
+    event.setHomeTeamScore(row.get("home_team_score", Integer.class));
+    event.setAwayTeamScore(row.get("away_team_score", Integer.class));
+    event.setScoreLastUpdatedTimestamp(row.get("score_last_updated_timestamp", LocalDateTime.class));
+    event.setStatus(EventStatus.valueOf(row.get("status", String.class)));
+    event.setFinishedAt(row.get("finished_at", LocalDateTime.class));
+    return event;
+  }
+}
@@ -0,0 +1,93 @@
+package com.sportsbook.repository;
+
+import com.sportsbook.model.dto.ScoreHistoryEntry;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/** Plain JDBC over {@code scoreboard.score_history}, which has no entity of its own. */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ScoreHistoryRepository {
+
+  private static final String COPY =
+      "copy scoreboard.score_history"
+          + " (event_id, home_team_score, away_team_score, score_valid_at, received_at, stale)"
+          + " from stdin";
+
+  private final DataSource dataSource;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public ScoreHistoryRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+    this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+  }
+
+  /** Sends every entry in one COPY, which commits on its own. */
+  public long appendAll(List<ScoreHistoryEntry> entries) throws SQLException, IOException {
+    StringBuilder rows = new StringBuilder(entries.size() * 96);
+    for (ScoreHistoryEntry entry : entries) {
+      rows.append(entry.getEventId()).append('\t');
+      rows.append(entry.getHomeTeamScore()).append('\t');
+      rows.append(entry.getAwayTeamScore()).append('\t');
+      CopyText.append(rows, entry.getScoreValidAtTimestamp()).append('\t');
+      CopyText.append(rows, entry.getReceivedTimestamp()).append('\t');
+      rows.append(entry.isStale() ? 't' : 'f').append('\n');
+    }
+
+    try (Connection connection = dataSource.getConnection()) {
+      return connection
+          .unwrap(PGConnection.class)
+          .getCopyAPI()
+          .copyIn(COPY, new StringReader(rows.toString()));
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} entries for the event in score time order, from {@code from}
+   * inclusive to {@code to} exclusive where given.
+   */
+  public List<ScoreHistoryEntry> findByEventId(
+      UUID eventId, LocalDateTime from, LocalDateTime to, int limit) {
+    StringBuilder sql =
+        new StringBuilder(
+            "select event_id, home_team_score, away_team_score, score_valid_at, received_at, stale"
+                + " from scoreboard.score_history where event_id = :eventId");
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource("eventId", eventId).addValue("limit", limit);
+    if (from != null) {
+      sql.append(" and score_valid_at >= :from");
+      parameters.addValue("from", from);
+    }
+    if (to != null) {
+      sql.append(" and score_valid_at < :to");
+      parameters.addValue("to", to);
+    }
+    sql.append(" order by score_valid_at, received_at limit :limit");
+
+    return jdbcTemplate.query(
+        sql.toString(),
+        parameters,
+        (row, rowNum) ->
+            new ScoreHistoryEntry(
+                row.getObject("event_id", UUID.class),
+                row.getInt("home_team_score"),
+                row.getInt("away_team_score"),
+                row.getObject("score_valid_at", LocalDateTime.class),
+                row.getObject("received_at", LocalDateTime.class),
+                row.getBoolean("stale")));
+  }
+}
@@ -0,0 +1,84 @@
+package com.sportsbook.service;
+
+import com.sportsbook.change.EventChangePublisher;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Moves events that finished longer than {@code scoreboard.archive.delay} ago out of the event table
+ * on a fixed interval, so the table, the cache and the full list only hold events that are still
+ * of interest.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(
+    name = "scoreboard.archive.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class EventArchiver {
+
+  private final EventArchiveRepository eventArchiveRepository;
+  private final EventLocks eventLocks;
+  private final EventChangePublisher eventChanges;
+  private final Duration delay;
+  private final int batchSize;
+
+  private final Counter archived;
+
+  @Autowired
+  public EventArchiver(
+      EventArchiveRepository eventArchiveRepository,
+      EventLocks eventLocks,
+      EventChangePublisher eventChanges,
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.archive.delay:24h}") Duration delay,
+      @Value("${scoreboard.archive.batch-size:1000}") int batchSize) {
+    this.eventArchiveRepository = eventArchiveRepository;
+    this.eventLocks = eventLocks;
+    this.eventChanges = eventChanges;
+    this.delay = delay;
+    this.batchSize = batchSize;
+
+    archived = meterRegistry.counter("scoreboard.archive.events.archived");
+  }
+
+  /** Archives every event that is due, a batch at a time. Returns how many were archived. */
+  @Scheduled(fixedDelayString = "${scoreboard.archive.interval-ms:60000}")
+  public int archive() {
+    LocalDateTime finishedBefore = LocalDateTime.now().minus(delay);
+    int total = 0;
+    List<Event> moved;
+    do {
+      moved = eventArchiveRepository.archiveFinishedBefore(finishedBefore, batchSize);
+      moved.forEach(this::announce);
+      archived.increment(moved.size());
+      total += moved.size();
+    } while (moved.size() == batchSize);
+    return total;
+  }
+
+  // Under the event's lock, so a score update that committed just before the move cannot put the
+  // event back into the cache after this removes it
+  private void announce(Event event) {
+    Lock lock = eventLocks.lockFor(event.getEventId());
+    lock.lock();
+    try {
+      eventChanges.archived(event);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
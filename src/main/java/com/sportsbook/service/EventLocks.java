@@ -0,0 +1,61 @@
+package com.sportsbook.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed by event id. Updates to the same event are serialised, while updates to
+ * different events only contend when they happen to hash to the same stripe.
+ */
+@Component
+public class EventLocks {
+
+  private static final int DEFAULT_STRIPES = 1024;
+
+  private final Lock[] stripes;
+
+  public EventLocks() {
+    this(DEFAULT_STRIPES);
+  }
+
+  public EventLocks(int stripes) {
+    if (Integer.bitCount(stripes) != 1) {
+      throw new IllegalArgumentException("Number of stripes must be a power of two");
+    }
+    this.stripes = new Lock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+  }
+
+  public Lock lockFor(UUID eventId) {
+    return stripes[indexFor(eventId)];
+  }
+
+  /**
+   * Returns the distinct locks covering all of the given events, in a fixed global order. Callers
+   * that need more than one lock must acquire them in the returned order to avoid deadlocking with
+   * each other.
+   */
+  public List<Lock> locksFor(Collection<UUID> eventIds) {
+    TreeSet<Integer> indexes = new TreeSet<>();
+    eventIds.forEach(eventId -> indexes.add(indexFor(eventId)));
+
+    List<Lock> locks = new ArrayList<>(indexes.size());
+    indexes.forEach(index -> locks.add(stripes[index]));
+    return locks;
+  }
+
+  int indexFor(UUID eventId) {
+    int hash = eventId.hashCode();
+    hash ^= (hash >>> 16);
+    return hash & (stripes.length - 1);
+  }
+}
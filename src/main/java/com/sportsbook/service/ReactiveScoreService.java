@@ -0,0 +1,81 @@
+package com.sportsbook.service;
+
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.repository.ReactiveEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies score updates with the same rule as {@link ScoreService}, but leaves ordering concurrent
+ * updates to the database: each update is a single conditional statement.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveScoreService {
+
+  private final ReactiveEventRepository eventRepository;
+  private final TransactionalOperator transactionalOperator;
+
+  private final Map<ScoreUpdateResult, Counter> results = new EnumMap<>(ScoreUpdateResult.class);
+
+  @Autowired
+  public ReactiveScoreService(
+      ReactiveEventRepository eventRepository,
+      ReactiveTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.eventRepository = eventRepository;
+    this.transactionalOperator = TransactionalOperator.create(transactionManager);
+
+    for (ScoreUpdateResult result : ScoreUpdateResult.values()) {
+      results.put(
+          result,
+          meterRegistry.counter(
+              "scoreboard.score.updates", "result", result.name().toLowerCase()));
+    }
+  }
+
+  public Mono<ScoreUpdateResult> updateScore(UUID eventId, UpdateScore updateScore) {
+    return applyOne(eventId, updateScore).doOnNext(result -> results.get(result).increment());
+  }
+
+  /** Applies a batch of updates one after another, in the order given, in a single transaction. */
+  public Mono<List<ScoreUpdateOutcome>> updateScores(List<EventScoreUpdate> updates) {
+    return Flux.fromIterable(updates)
+        .concatMap(
+            update ->
+                applyOne(update.getEventId(), update)
+                    .map(result -> new ScoreUpdateOutcome(update.getEventId(), result)))
+        .collectList()
+        .as(transactionalOperator::transactional)
+        .doOnNext(
+            outcomes -> outcomes.forEach(outcome -> results.get(outcome.getResult()).increment()));
+  }
+
+  private Mono<ScoreUpdateResult> applyOne(UUID eventId, UpdateScore updateScore) {
+    return eventRepository
+        .updateScoreIfNewer(eventId, updateScore)
+        .flatMap(applied -> applied ? Mono.just(ScoreUpdateResult.APPLIED) : notApplied(eventId));
+  }
+
+  // Nothing was updated, either because the event holds a newer score or because it does not exist
+  private Mono<ScoreUpdateResult> notApplied(UUID eventId) {
+    return eventRepository
+        .existsById(eventId)
+        .map(exists -> exists ? ScoreUpdateResult.STALE : ScoreUpdateResult.NOT_FOUND);
+  }
+}
@@ -0,0 +1,167 @@
+package com.sportsbook.service;
+
+import com.sportsbook.model.dto.ScoreHistoryEntry;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.repository.ScoreHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queues every score update that reached an event, applied or stale, and appends them to the
+ * score history in batches on a fixed interval, and once more on shutdown.
+ *
+ * <p>Recording only offers the entry to a bounded queue, so the score update path never waits on
+ * the history table. If the queue is full the entry is dropped and counted rather than holding up
+ * the update. A batch that fails is retried on the next flush. One that Postgres rejects for its
+ * data is split until only the rejected rows are left, and those are dropped.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(
+    name = "scoreboard.history.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ScoreHistory {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ScoreHistory.class);
+
+  private final ScoreHistoryRepository scoreHistoryRepository;
+  private final int batchSize;
+
+  private final BlockingQueue<ScoreHistoryEntry> pending;
+  private final Lock flushLock = new ReentrantLock();
+
+  private final Counter written;
+  private final Counter dropped;
+
+  @Autowired
+  public ScoreHistory(
+      ScoreHistoryRepository scoreHistoryRepository,
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.history.queue-capacity:100000}") int queueCapacity,
+      @Value("${scoreboard.history.batch-size:5000}") int batchSize) {
+    this.scoreHistoryRepository = scoreHistoryRepository;
+    this.batchSize = batchSize;
+    this.pending = new ArrayBlockingQueue<>(queueCapacity);
+
+    written = meterRegistry.counter("scoreboard.history.rows.written");
+    dropped = meterRegistry.counter("scoreboard.history.rows.dropped");
+    Gauge.builder("scoreboard.history.pending", pending, BlockingQueue::size)
+        .register(meterRegistry);
+  }
+
+  /** Records the update if it reached an event. Never blocks. */
+  public void record(UUID eventId, UpdateScore updateScore, ScoreUpdateResult result) {
+    if (result == ScoreUpdateResult.NOT_FOUND) {
+      return;
+    }
+    ScoreHistoryEntry entry =
+        new ScoreHistoryEntry(
+            eventId,
+            updateScore.getHomeTeamScore(),
+            updateScore.getAwayTeamScore(),
+            updateScore.getScoreValidAtTimestamp(),
+            LocalDateTime.now(),
+            result == ScoreUpdateResult.STALE);
+    if (!pending.offer(entry)) {
+      dropped.increment();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${scoreboard.history.flush-interval-ms:200}")
+  public void flush() {
+    flushLock.lock();
+    try {
+      List<ScoreHistoryEntry> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+      while (pending.drainTo(batch, batchSize) > 0) {
+        if (!append(batch)) {
+          return;
+        }
+        batch.clear();
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+    if (!pending.isEmpty()) {
+      LOGGER.error("{} score history rows could not be written on shutdown", pending.size());
+    }
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  // Returns false, with the rows requeued, if they could not be written for a reason that may pass
+  private boolean append(List<ScoreHistoryEntry> rows) {
+    try {
+      written.increment(scoreHistoryRepository.appendAll(rows));
+      return true;
+    } catch (SQLException e) {
+      if (!isDataError(e)) {
+        LOGGER.warn("Could not append {} score history rows, will retry", rows.size(), e);
+        requeue(rows);
+        return false;
+      }
+      if (rows.size() == 1) {
+        LOGGER.error("Dropping score history row Postgres rejected: {}", rows.get(0), e);
+        dropped.increment();
+        return true;
+      }
+      // Retrying the whole batch would fail the same way and hold up every later row, so halve it
+      // until the rows Postgres rejects are on their own
+      List<ScoreHistoryEntry> firstHalf = rows.subList(0, rows.size() / 2);
+      List<ScoreHistoryEntry> secondHalf = rows.subList(rows.size() / 2, rows.size());
+      if (!append(firstHalf)) {
+        requeue(secondHalf);
+        return false;
+      }
+      return append(secondHalf);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Could not append {} score history rows, will retry", rows.size(), e);
+      requeue(rows);
+      return false;
+    }
+  }
+
+  // SQLSTATE class 22 is data exceptions, class 23 integrity constraint violations
+  private static boolean isDataError(SQLException e) {
+    String sqlState = e.getSQLState();
+    return sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"));
+  }
+
+  // Rows carry their own timestamps, so going back behind newer ones loses nothing
+  private void requeue(List<ScoreHistoryEntry> batch) {
+    for (ScoreHistoryEntry entry : batch) {
+      if (!pending.offer(entry)) {
+        dropped.increment();
+      }
+    }
+  }
+}
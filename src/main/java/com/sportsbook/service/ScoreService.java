@@ -0,0 +1,296 @@
+package com.sportsbook.service;
+
+import com.sportsbook.change.EventChangePublisher;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.StatusUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import com.sportsbook.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ScoreService {
+
+  private final EventRepository eventRepository;
+  private final EventLocks eventLocks;
+  private final EventChangePublisher eventChanges;
+  private final TransactionTemplate transactionTemplate;
+  private final Optional<ScoreWriteBehind> writeBehind;
+  private final Optional<ScoreHistory> history;
+  private final boolean clustered;
+
+  private final Timer singleLockWait;
+  private final Timer batchLockWait;
+  private final Map<ScoreUpdateResult, Counter> results = new EnumMap<>(ScoreUpdateResult.class);
+
+  @Autowired
+  public ScoreService(
+      EventRepository eventRepository,
+      EventLocks eventLocks,
+      EventChangePublisher eventChanges,
+      PlatformTransactionManager transactionManager,
+      Optional<ScoreWriteBehind> writeBehind,
+      Optional<ScoreHistory> history,
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.cluster.enabled:false}") boolean clustered) {
+    // Write-behind keeps the newest score in this instance only, where no other instance can see it
+    if (clustered && writeBehind.isPresent()) {
+      throw new IllegalStateException(
+          "scoreboard.cluster.enabled cannot be combined with scoreboard.write-behind.enabled");
+    }
+    this.eventRepository = eventRepository;
+    this.eventLocks = eventLocks;
+    this.eventChanges = eventChanges;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.writeBehind = writeBehind;
+    this.history = history;
+    this.clustered = clustered;
+
+    singleLockWait = meterRegistry.timer("scoreboard.lock.wait", "update", "single");
+    batchLockWait = meterRegistry.timer("scoreboard.lock.wait", "update", "batch");
+    for (ScoreUpdateResult result : ScoreUpdateResult.values()) {
+      results.put(
+          result,
+          meterRegistry.counter(
+              "scoreboard.score.updates", "result", result.name().toLowerCase()));
+    }
+  }
+
+  // Updates to the same event are applied one at a time; different events update in parallel.
+  // In a cluster the row lock also orders them across instances
+  public ScoreUpdateResult updateScore(UUID eventId, UpdateScore updateScore) {
+    Lock lock = eventLocks.lockFor(eventId);
+    long waitStart = System.nanoTime();
+    lock.lock();
+    singleLockWait.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+    try {
+      AtomicReference<Event> updated = new AtomicReference<>();
+      ScoreUpdateResult result =
+          writeBehind.isPresent()
+              ? writeBehind.get().accept(eventId, updateScore, updated)
+              : transactionTemplate.execute(status -> applyOne(eventId, updateScore, updated));
+
+      if (result == ScoreUpdateResult.APPLIED) {
+        publishWhenDurable(List.of(updated.get()));
+      }
+      results.get(result).increment();
+      history.ifPresent(recorder -> recorder.record(eventId, updateScore, result));
+      return result;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Applies a batch of updates in a single transaction, in the order given, with the same rule as
+   * {@link #updateScore(UUID, UpdateScore)}. Returns one outcome per update, in the same order.
+   */
+  public List<ScoreUpdateOutcome> updateScores(List<EventScoreUpdate> updates) {
+    Set<UUID> eventIds =
+        updates.stream().map(EventScoreUpdate::getEventId).collect(Collectors.toSet());
+
+    List<Lock> locks = eventLocks.locksFor(eventIds);
+    long waitStart = System.nanoTime();
+    locks.forEach(Lock::lock);
+    batchLockWait.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+    try {
+      List<ScoreUpdateOutcome> outcomes;
+      Map<UUID, Event> changed = new LinkedHashMap<>();
+      if (writeBehind.isPresent()) {
+        outcomes = acceptAll(updates, changed);
+      } else {
+        outcomes = transactionTemplate.execute(status -> applyAll(updates, eventIds, changed));
+      }
+      publishWhenDurable(changed.values());
+
+      for (int i = 0; i < outcomes.size(); i++) {
+        ScoreUpdateResult result = outcomes.get(i).getResult();
+        results.get(result).increment();
+        if (history.isPresent()) {
+          history.get().record(updates.get(i).getEventId(), updates.get(i), result);
+        }
+      }
+      return outcomes;
+    } finally {
+      for (int i = locks.size() - 1; i >= 0; i--) {
+        locks.get(i).unlock();
+      }
+    }
+  }
+
+  /** Moves the event on to the given status; an event never moves back. */
+  public StatusUpdateResult updateStatus(UUID eventId, EventStatus status) {
+    Lock lock = eventLocks.lockFor(eventId);
+    lock.lock();
+    try {
+      AtomicReference<Event> updated = new AtomicReference<>();
+      StatusUpdateResult result =
+          transactionTemplate.execute(tx -> applyStatus(eventId, status, updated));
+      if (result == StatusUpdateResult.APPLIED) {
+        eventChanges.statusUpdated(updated.get());
+      }
+      return result;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private StatusUpdateResult applyStatus(
+      UUID eventId, EventStatus status, AtomicReference<Event> updated) {
+    Optional<Event> found =
+        clustered ? eventRepository.findByIdForUpdate(eventId) : eventRepository.findById(eventId);
+    if (found.isEmpty()) {
+      return StatusUpdateResult.NOT_FOUND;
+    }
+    Event event = found.get();
+    if (event.getStatus() == status) {
+      return StatusUpdateResult.UNCHANGED;
+    }
+    if (!event.getStatus().canMoveTo(status)) {
+      return StatusUpdateResult.NOT_ALLOWED;
+    }
+
+    // Kept to what Postgres stores, so the cached event matches the row exactly
+    LocalDateTime finishedAt =
+        status == EventStatus.FINISHED
+            ? LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)
+            : null;
+    eventRepository.updateStatus(eventId, status, finishedAt);
+    Event changed = writeBehind.flatMap(pending -> pending.latest(eventId)).orElse(event).copy();
+    changed.setStatus(status);
+    changed.setFinishedAt(finishedAt);
+    updated.set(changed);
+    return StatusUpdateResult.APPLIED;
+  }
+
+  private ScoreUpdateResult applyOne(
+      UUID eventId, UpdateScore updateScore, AtomicReference<Event> updated) {
+    Optional<Event> found =
+        clustered ? eventRepository.findByIdForUpdate(eventId) : eventRepository.findById(eventId);
+    if (found.isEmpty()) {
+      return ScoreUpdateResult.NOT_FOUND;
+    }
+
+    Event event = found.get();
+    if (!applyIfNewer(event, updateScore)) {
+      return ScoreUpdateResult.STALE;
+    }
+
+    eventRepository.saveAndFlush(event);
+    updated.set(event);
+    return ScoreUpdateResult.APPLIED;
+  }
+
+  private List<ScoreUpdateOutcome> applyAll(
+      List<EventScoreUpdate> updates, Set<UUID> eventIds, Map<UUID, Event> changed) {
+    List<Event> found =
+        clustered
+            ? eventRepository.findAllByIdForUpdate(eventIds)
+            : eventRepository.findAllById(eventIds);
+    Map<UUID, Event> events =
+        found.stream().collect(Collectors.toMap(Event::getEventId, Function.identity()));
+
+    List<ScoreUpdateOutcome> outcomes = new ArrayList<>(updates.size());
+    for (EventScoreUpdate update : updates) {
+      Event event = events.get(update.getEventId());
+      ScoreUpdateResult result;
+      if (event == null) {
+        result = ScoreUpdateResult.NOT_FOUND;
+      } else if (applyIfNewer(event, update)) {
+        changed.put(event.getEventId(), event);
+        result = ScoreUpdateResult.APPLIED;
+      } else {
+        result = ScoreUpdateResult.STALE;
+      }
+      outcomes.add(new ScoreUpdateOutcome(update.getEventId(), result));
+    }
+
+    // Sent as batched UPDATE statements when the transaction flushes
+    eventRepository.saveAll(new ArrayList<>(changed.values()));
+    return outcomes;
+  }
+
+  // Nothing is published until the whole batch is in the journal, so each update is checked against
+  // the last one accepted for its event in this batch
+  private List<ScoreUpdateOutcome> acceptAll(
+      List<EventScoreUpdate> updates, Map<UUID, Event> changed) {
+    List<ScoreUpdateOutcome> outcomes = new ArrayList<>(updates.size());
+    for (EventScoreUpdate update : updates) {
+      UUID eventId = update.getEventId();
+      Optional<Event> current =
+          changed.containsKey(eventId)
+              ? Optional.of(changed.get(eventId))
+              : writeBehind.get().latest(eventId);
+      AtomicReference<Event> updated = new AtomicReference<>();
+      ScoreUpdateResult result = writeBehind.get().accept(current, update, updated);
+      if (result == ScoreUpdateResult.APPLIED) {
+        changed.put(eventId, updated.get());
+      }
+      outcomes.add(new ScoreUpdateOutcome(eventId, result));
+    }
+    return outcomes;
+  }
+
+  // If the journal sync fails, the accepted scores are taken back so none of them is written later
+  // and the failure is thrown. Any a flush has already taken are written anyway, so they stay
+  // accepted and are published
+  private void publishWhenDurable(Collection<Event> accepted) {
+    if (writeBehind.isPresent()) {
+      try {
+        writeBehind.get().awaitDurable();
+      } catch (UncheckedIOException e) {
+        List<Event> taken =
+            accepted.stream()
+                .filter(event -> !writeBehind.get().withdraw(event))
+                .collect(Collectors.toList());
+        taken.forEach(eventChanges::scoreUpdated);
+        if (taken.size() < accepted.size()) {
+          throw e;
+        }
+        return;
+      }
+    }
+    accepted.forEach(eventChanges::scoreUpdated);
+  }
+
+  static boolean applyIfNewer(Event event, UpdateScore updateScore) {
+    if (!event.acceptsScoreAt(updateScore.getScoreValidAtTimestamp())) {
+      return false;
+    }
+
+    event.setHomeTeamScore(updateScore.getHomeTeamScore());
+    event.setAwayTeamScore(updateScore.getAwayTeamScore());
+    event.setScoreLastUpdatedTimestamp(updateScore.getScoreValidAtTimestamp());
+    return true;
+  }
+}
@@ -0,0 +1,311 @@
+package com.sportsbook.service;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.journal.ScoreJournal;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts score updates into one pending slot per event and writes the newest of them to the
+ * database in batches on a fixed interval, and once more on shutdown.
+ *
+ * <p>Accepted scores are visible to readers straight away, but only become durable when the next
+ * flush commits. Updates accepted since the last flush are lost if the process dies, unless the
+ * {@link ScoreJournal} is enabled: then every update is appended to it and on disk before it is
+ * acknowledged, and whatever the last run had not flushed is replayed on startup.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "scoreboard.write-behind.enabled", havingValue = "true")
+public class ScoreWriteBehind {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ScoreWriteBehind.class);
+
+  private final EventRepository eventRepository;
+  private final EventCache eventCache;
+  private final Optional<ScoreJournal> journal;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+
+  private final Map<UUID, EventScoreUpdate> pending = new ConcurrentHashMap<>();
+  private final Lock flushLock = new ReentrantLock();
+
+  // Held shared while an update goes into the journal and the pending slots, and exclusively while
+  // a flush rolls the journal over and takes the slots, so every update in a segment the flush
+  // deletes is one it has written
+  private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+  private final Counter received;
+  private final Counter written;
+
+  @Autowired
+  public ScoreWriteBehind(
+      EventRepository eventRepository,
+      EventCache eventCache,
+      Optional<ScoreJournal> journal,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${scoreboard.write-behind.batch-size:500}") int batchSize) {
+    if (!eventCache.isEnabled()) {
+      throw new IllegalStateException(
+          "scoreboard.write-behind.enabled requires scoreboard.cache.enabled");
+    }
+    this.eventRepository = eventRepository;
+    this.eventCache = eventCache;
+    this.journal = journal;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+
+    received = meterRegistry.counter("scoreboard.write_behind.updates.received");
+    written = meterRegistry.counter("scoreboard.write_behind.rows.written");
+    Gauge.builder("scoreboard.write_behind.pending", pending, Map::size).register(meterRegistry);
+  }
+
+  /**
+   * Checks the update against the latest accepted score and, if it is newer, keeps it for the next
+   * flush. The caller must hold the event's lock.
+   */
+  ScoreUpdateResult accept(UUID eventId, UpdateScore updateScore, AtomicReference<Event> updated) {
+    return accept(eventCache.findById(eventId), updateScore, updated);
+  }
+
+  /**
+   * Like {@link #accept(UUID, UpdateScore, AtomicReference)}, but checked against {@code found},
+   * for a caller that has accepted newer scores for the event than it has published yet.
+   */
+  ScoreUpdateResult accept(
+      Optional<Event> found, UpdateScore updateScore, AtomicReference<Event> updated) {
+    received.increment();
+
+    if (found.isEmpty()) {
+      return ScoreUpdateResult.NOT_FOUND;
+    }
+
+    Event event = found.get().copy();
+    if (!ScoreService.applyIfNewer(event, updateScore)) {
+      return ScoreUpdateResult.STALE;
+    }
+
+    EventScoreUpdate update = pendingUpdate(event);
+    acceptLock.readLock().lock();
+    try {
+      if (journal.isPresent()) {
+        journal.get().append(update);
+      }
+      keepNewest(update);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not append to the score journal", e);
+    } finally {
+      acceptLock.readLock().unlock();
+    }
+
+    updated.set(event);
+    return ScoreUpdateResult.APPLIED;
+  }
+
+  /** Returns once every update accepted so far is in the journal on disk, if there is one. */
+  void awaitDurable() {
+    if (journal.isEmpty()) {
+      return;
+    }
+    try {
+      journal.get().awaitDurable(journal.get().appendedPosition());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not sync the score journal", e);
+    }
+  }
+
+  /**
+   * Takes back an accepted score whose journal sync failed, putting the last published score back in
+   * its event's pending slot. Returns false if a flush has already taken it, in which case it is
+   * written anyway. The caller must hold the event's lock.
+   */
+  boolean withdraw(Event accepted) {
+    AtomicBoolean withdrawn = new AtomicBoolean();
+    pending.computeIfPresent(
+        accepted.getEventId(),
+        (eventId, update) -> {
+          if (!update.getScoreValidAtTimestamp().equals(accepted.getScoreLastUpdatedTimestamp())
+              || update.getHomeTeamScore() != accepted.getHomeTeamScore()
+              || update.getAwayTeamScore() != accepted.getAwayTeamScore()) {
+            return update;
+          }
+          withdrawn.set(true);
+          // Writing the published score again is harmless if it has been flushed already
+          return eventCache
+              .findById(eventId)
+              .filter(published -> published.getScoreLastUpdatedTimestamp() != null)
+              .map(ScoreWriteBehind::pendingUpdate)
+              .orElse(null);
+        });
+    return withdrawn.get();
+  }
+
+  // Runs before the server takes requests. Each update is checked against the loaded events by the
+  // usual rule, so updates that did reach the database are skipped
+  @PostConstruct
+  public void recover() throws IOException {
+    if (journal.isEmpty()) {
+      return;
+    }
+    List<EventScoreUpdate> updates = journal.get().recover();
+    int replayed = 0;
+    for (EventScoreUpdate update : updates) {
+      Optional<Event> found = eventCache.findById(update.getEventId());
+      if (found.isEmpty()) {
+        continue;
+      }
+      Event event = found.get().copy();
+      if (ScoreService.applyIfNewer(event, update)) {
+        eventCache.put(event);
+        keepNewest(update);
+        replayed++;
+      }
+    }
+    if (!updates.isEmpty()) {
+      LOGGER.info("Replayed {} of {} journalled score updates", replayed, updates.size());
+    }
+  }
+
+  /** The event with the newest accepted score, which may not have been written yet. */
+  Optional<Event> latest(UUID eventId) {
+    return eventCache.findById(eventId);
+  }
+
+  @Scheduled(fixedDelayString = "${scoreboard.write-behind.flush-interval-ms:1000}")
+  public void flush() {
+    flushLock.lock();
+    try {
+      List<Path> segments = List.of();
+      List<EventScoreUpdate> updates = new ArrayList<>(pending.size());
+      acceptLock.writeLock().lock();
+      try {
+        if (journal.isPresent()) {
+          segments = journal.get().rollOver();
+        }
+        for (UUID eventId : pending.keySet()) {
+          EventScoreUpdate update = pending.remove(eventId);
+          if (update != null) {
+            updates.add(update);
+          }
+        }
+      } catch (IOException e) {
+        // Nothing has been taken, so the updates wait for the next flush
+        LOGGER.warn("Could not roll the score journal over, will retry", e);
+        return;
+      } finally {
+        acceptLock.writeLock().unlock();
+      }
+
+      for (int from = 0; from < updates.size(); from += batchSize) {
+        List<EventScoreUpdate> batch =
+            updates.subList(from, Math.min(from + batchSize, updates.size()));
+        try {
+          Integer rows = transactionTemplate.execute(status -> write(batch));
+          written.increment(rows == null ? 0 : rows);
+        } catch (RuntimeException e) {
+          LOGGER.warn("Could not write {} score updates, will retry", batch.size(), e);
+          // Anything accepted since is newer and must not be replaced
+          updates.subList(from, updates.size()).forEach(this::keepNewest);
+          return;
+        }
+      }
+
+      if (journal.isPresent()) {
+        try {
+          journal.get().delete(segments);
+        } catch (IOException e) {
+          LOGGER.warn("Could not delete flushed score journal segments", e);
+        }
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+    if (!pending.isEmpty()) {
+      LOGGER.error("{} accepted score updates could not be written on shutdown", pending.size());
+    }
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  private int write(List<EventScoreUpdate> batch) {
+    Set<UUID> eventIds =
+        batch.stream().map(EventScoreUpdate::getEventId).collect(Collectors.toSet());
+    Map<UUID, Event> events =
+        eventRepository.findAllById(eventIds).stream()
+            .collect(Collectors.toMap(Event::getEventId, Function.identity()));
+
+    List<Event> changed = new ArrayList<>(batch.size());
+    for (EventScoreUpdate update : batch) {
+      Event event = events.get(update.getEventId());
+      if (event != null && ScoreService.applyIfNewer(event, update)) {
+        changed.add(event);
+      }
+    }
+    eventRepository.saveAll(changed);
+    return changed.size();
+  }
+
+  private static EventScoreUpdate pendingUpdate(Event event) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(event.getEventId());
+    update.setHomeTeamScore(event.getHomeTeamScore());
+    update.setAwayTeamScore(event.getAwayTeamScore());
+    update.setScoreValidAtTimestamp(event.getScoreLastUpdatedTimestamp());
+    return update;
+  }
+
+  private void keepNewest(EventScoreUpdate update) {
+    pending.merge(
+        update.getEventId(),
+        update,
+        (existing, offered) ->
+            existing.getScoreValidAtTimestamp().isAfter(offered.getScoreValidAtTimestamp())
+                ? existing
+                : offered);
+  }
+}
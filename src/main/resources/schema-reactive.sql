@@ -0,0 +1,25 @@
+CREATE SCHEMA IF NOT EXISTS scoreboard;
+
+CREATE TABLE IF NOT EXISTS scoreboard.event (
+    event_id uuid NOT NULL PRIMARY KEY,
+    match_title varchar(255),
+    home_team_name varchar(255),
+    away_team_name varchar(255),
+    home_team_score integer NOT NULL,
+    away_team_score integer NOT NULL,
+    score_last_updated_timestamp timestamp,
+    status varchar(16) NOT NULL DEFAULT 'SCHEDULED',
+    finished_at timestamp
+);
+
+-- For tables created before the event had a status
+ALTER TABLE scoreboard.event ADD COLUMN IF NOT EXISTS status varchar(16) NOT NULL DEFAULT 'SCHEDULED';
+ALTER TABLE scoreboard.event ADD COLUMN IF NOT EXISTS finished_at timestamp;
+
+-- The same indexes Hibernate creates from the Event entity in the blocking stack
+CREATE INDEX IF NOT EXISTS event_match_title ON scoreboard.event (match_title);
+CREATE INDEX IF NOT EXISTS event_home_team_name ON scoreboard.event (home_team_name);
+CREATE INDEX IF NOT EXISTS event_away_team_name ON scoreboard.event (away_team_name);
+CREATE INDEX IF NOT EXISTS event_score_last_updated_timestamp
+    ON scoreboard.event (score_last_updated_timestamp);
+CREATE INDEX IF NOT EXISTS event_finished_at ON scoreboard.event (finished_at);
@@ -1 +1,33 @@
-CREATE SCHEMA IF NOT EXISTS scoreboard;
\ No newline at end of file
+CREATE SCHEMA IF NOT EXISTS scoreboard;
+
+-- Append-only: one row for every score update that reached an existing event, stale ones included
+CREATE TABLE IF NOT EXISTS scoreboard.score_history (
+    event_id uuid NOT NULL,
+    home_team_score integer NOT NULL,
+    away_team_score integer NOT NULL,
+    score_valid_at timestamp NOT NULL,
+    received_at timestamp NOT NULL,
+    stale boolean NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS score_history_event_id_score_valid_at
+    ON scoreboard.score_history (event_id, score_valid_at);
+
+-- Finished events, moved out of scoreboard.event once they have been finished for a while
+CREATE TABLE IF NOT EXISTS scoreboard.event_archive (
+    event_id uuid PRIMARY KEY,
+    match_title varchar(255),
+    home_team_name varchar(255),
+    away_team_name varchar(255),
+    home_team_score integer NOT NULL,
+    away_team_score integer NOT NULL,
+    score_last_updated_timestamp timestamp,
+    status varchar(16) NOT NULL,
+    finished_at timestamp NOT NULL,
+    archived_at timestamp NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS event_archive_finished_at ON scoreboard.event_archive (finished_at);
+CREATE INDEX IF NOT EXISTS event_archive_match_title ON scoreboard.event_archive (match_title);
+CREATE INDEX IF NOT EXISTS event_archive_home_team_name ON scoreboard.event_archive (home_team_name);
+CREATE INDEX IF NOT EXISTS event_archive_away_team_name ON scoreboard.event_archive (away_team_name);
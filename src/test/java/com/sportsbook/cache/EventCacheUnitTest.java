@@ -0,0 +1,261 @@
+package com.sportsbook.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.model.dto.EventFilter;
+import com.sportsbook.model.dto.EventSummary;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventCacheUnitTest {
+
+  public static final String MATCH_TITLE = "World Cup";
+
+  @Mock private EventRepository eventRepository;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @Test
+  void testServesEventsFromMemoryAfterLoad() {
+    // Given
+    Event testEvent = event(UUID.randomUUID());
+    givenRepositoryContains(testEvent);
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), true);
+    underTest.reload();
+
+    // When
+    List<Event> allEvents = underTest.findAll();
+    Optional<Event> eventById = underTest.findById(testEvent.getEventId());
+
+    // Then
+    assertThat(allEvents).hasSize(1);
+    assertThat(allEvents.get(0).getMatchTitle()).isEqualTo(MATCH_TITLE);
+    assertThat(eventById).isPresent();
+    assertThat(underTest.hitRatio()).isEqualTo(1.0);
+    verify(eventRepository, times(1)).forEachEvent(any());
+    verify(eventRepository, never()).findAll();
+    verify(eventRepository, never()).findById(any());
+  }
+
+  @Test
+  void testWriteThroughReplacesCachedEvent() {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+    Event testEvent = event(testEventId);
+    givenRepositoryContains(testEvent);
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), true);
+    underTest.reload();
+
+    // When
+    testEvent.setHomeTeamScore(2);
+    testEvent.setScoreLastUpdatedTimestamp(LocalDateTime.now());
+    underTest.put(testEvent);
+    testEvent.setHomeTeamScore(99);
+
+    // Then
+    Event cachedEvent = underTest.findById(testEventId).get();
+    assertThat(cachedEvent.getHomeTeamScore()).isEqualTo(2);
+    assertThat(cachedEvent).isNotSameAs(testEvent);
+    assertThat(underTest.size()).isEqualTo(1);
+  }
+
+  @Test
+  void testMissFallsBackToRepository() {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+    when(eventRepository.findById(testEventId)).thenReturn(Optional.of(event(testEventId)));
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), true);
+
+    // When
+    underTest.findById(testEventId);
+    underTest.findById(testEventId);
+
+    // Then
+    verify(eventRepository, times(1)).findById(testEventId);
+    assertThat(underTest.hitRatio()).isEqualTo(0.5);
+  }
+
+  @Test
+  void testDisabledCacheReadsFromRepository() {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+    when(eventRepository.findById(testEventId)).thenReturn(Optional.of(event(testEventId)));
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), false);
+    underTest.reload();
+
+    // When
+    underTest.put(event(testEventId));
+    underTest.findById(testEventId);
+
+    // Then
+    assertThat(underTest.size()).isZero();
+    verify(eventRepository).findById(testEventId);
+    verify(eventRepository, never()).forEachEvent(any());
+  }
+
+  @Test
+  void testPagesFollowDatabaseOrder() {
+    // Given
+    UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    UUID second = UUID.fromString("7fffffff-0000-0000-0000-000000000000");
+    UUID third = UUID.fromString("80000000-0000-0000-0000-000000000000");
+    givenRepositoryContains(event(third), event(first), event(second));
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), true);
+    underTest.reload();
+
+    // When
+    List<Event> firstPage = underTest.findPage(null, 2);
+    List<Event> secondPage = underTest.findPage(second, 2);
+
+    // Then
+    assertThat(firstPage).extracting(Event::getEventId).containsExactly(first, second);
+    assertThat(secondPage).extracting(Event::getEventId).containsExactly(third);
+    verify(eventRepository, never()).findFirstPage(any());
+  }
+
+  @Test
+  void testSerializedListIsSharedUntilNextChange() throws Exception {
+    // Given
+    UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    UUID second = UUID.fromString("80000000-0000-0000-0000-000000000000");
+    givenRepositoryContains(event(second), event(first));
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), true);
+    underTest.reload();
+
+    // When
+    SerializedEventList before = underTest.findAllSerialized();
+    SerializedEventList unchanged = underTest.findAllSerialized();
+
+    Event changed = event(second);
+    changed.setHomeTeamScore(3);
+    underTest.put(changed);
+    SerializedEventList after = underTest.findAllSerialized();
+
+    // Then
+    assertThat(unchanged).isSameAs(before);
+    assertThat(after).isNotSameAs(before);
+
+    Event[] afterEvents = objectMapper.readValue(after.getJson(), Event[].class);
+    assertThat(afterEvents).extracting(Event::getEventId).containsExactly(first, second);
+    assertThat(afterEvents[1].getHomeTeamScore()).isEqualTo(3);
+    assertThat(after.getJson())
+        .isEqualTo(objectMapper.writeValueAsBytes(List.of(event(first), changed)));
+
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(after.getGzip()))) {
+      assertThat(gzip.readAllBytes()).isEqualTo(after.getJson());
+    }
+    assertThat(underTest.findSerializedById(second).get().getJson())
+        .isEqualTo(objectMapper.writeValueAsBytes(changed));
+  }
+
+  @Test
+  void testMatchingJsonFiltersCachedEvents() throws Exception {
+    // Given
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+    Event england = event(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    england.setHomeTeamName("England");
+    england.setScoreLastUpdatedTimestamp(kickOff);
+    Event france = event(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+    france.setAwayTeamName("England");
+    france.setScoreLastUpdatedTimestamp(kickOff.plusMinutes(30));
+    Event friendly = event(UUID.fromString("00000000-0000-0000-0000-000000000003"));
+    friendly.setMatchTitle("Friendly");
+    givenRepositoryContains(friendly, france, england);
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), true);
+    underTest.reload();
+
+    // When
+    byte[] byTeam = underTest.findMatchingJson(new EventFilter("England", null, null));
+    byte[] byTeamSince =
+        underTest.findMatchingJson(new EventFilter("England", null, kickOff.plusMinutes(30)));
+    byte[] byTitle = underTest.findMatchingJson(new EventFilter(null, "Friendly", null));
+
+    // Then
+    assertThat(byTeam).isEqualTo(objectMapper.writeValueAsBytes(List.of(england, france)));
+    assertThat(byTeamSince).isEqualTo(objectMapper.writeValueAsBytes(List.of(france)));
+    assertThat(byTitle).isEqualTo(objectMapper.writeValueAsBytes(List.of(friendly)));
+    verify(eventRepository, never()).findAllMatching(any());
+  }
+
+  @Test
+  void testDisabledCacheFiltersWithProjectionQuery() throws Exception {
+    // Given
+    Event testEvent = event(UUID.randomUUID());
+    testEvent.setHomeTeamName("England");
+    testEvent.setHomeTeamScore(2);
+    testEvent.setScoreLastUpdatedTimestamp(LocalDateTime.of(2021, 8, 3, 15, 0));
+    EventFilter filter = new EventFilter("England", null, null);
+    when(eventRepository.findAllMatching(filter))
+        .thenReturn(
+            List.of(
+                new EventSummary(
+                    testEvent.getEventId(),
+                    testEvent.getMatchTitle(),
+                    testEvent.getHomeTeamName(),
+                    testEvent.getAwayTeamName(),
+                    testEvent.getHomeTeamScore(),
+                    testEvent.getAwayTeamScore(),
+                    testEvent.getScoreLastUpdatedTimestamp(),
+                    testEvent.getStatus(),
+                    testEvent.getFinishedAt())));
+
+    EventCache underTest =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), false);
+
+    // When
+    byte[] matching = underTest.findMatchingJson(filter);
+
+    // Then the projection is written exactly like the entity
+    assertThat(matching).isEqualTo(objectMapper.writeValueAsBytes(List.of(testEvent)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenRepositoryContains(Event... events) {
+    doAnswer(
+            invocation -> {
+              Consumer<Event> action = invocation.getArgument(0);
+              List.of(events).forEach(action);
+              return null;
+            })
+        .when(eventRepository)
+        .forEachEvent(any(Consumer.class));
+  }
+
+  private static Event event(UUID eventId) {
+    Event event = new Event();
+    event.setEventId(eventId);
+    event.setMatchTitle(MATCH_TITLE);
+    return event;
+  }
+}
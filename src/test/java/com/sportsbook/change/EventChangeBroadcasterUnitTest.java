@@ -0,0 +1,205 @@
+package com.sportsbook.change;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.endpoint.EventStreamEndpoint;
+import com.sportsbook.model.entity.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventChangeBroadcasterUnitTest {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  static {
+    objectMapper.registerModule(new JavaTimeModule());
+  }
+
+  @Mock private EventCache eventCache;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void testStreamsChangesToAllEvents() throws Exception {
+    // Given
+    EventChangeBroadcaster underTest =
+        broadcaster(64, new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    MockMvc mockMvc = mockMvc(underTest);
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/event/stream"))
+            .andExpect(request().asyncStarted())
+            .andExpect(handler().methodName("streamAllChanges"))
+            .andReturn();
+
+    // When
+    Event testEvent = event(UUID.randomUUID());
+    underTest.onChange(new EventChange(1, EventChange.Type.CREATED, testEvent));
+    testEvent.setHomeTeamScore(2);
+    underTest.onChange(new EventChange(2, EventChange.Type.SCORE_UPDATED, testEvent));
+
+    // Then
+    String body = result.getResponse().getContentAsString();
+    assertThat(body)
+        .contains("id:1\nevent:created\ndata:{\"eventId\":\"" + testEvent.getEventId())
+        .contains("\"matchTitle\":\"World Cup\"")
+        .contains("id:2\nevent:score\ndata:{\"eventId\":\"" + testEvent.getEventId())
+        .contains("\"homeTeamScore\":2");
+    assertThat(body.substring(body.indexOf("id:2"))).doesNotContain("matchTitle");
+  }
+
+  @Test
+  void testStreamsChangesToOneEvent() throws Exception {
+    // Given
+    EventChangeBroadcaster underTest =
+        broadcaster(64, new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    MockMvc mockMvc = mockMvc(underTest);
+
+    Event watchedEvent = event(UUID.randomUUID());
+    Event otherEvent = event(UUID.randomUUID());
+    when(eventCache.findById(watchedEvent.getEventId())).thenReturn(Optional.of(watchedEvent));
+
+    MvcResult result =
+        mockMvc
+            .perform(get(String.format("/event/%s/stream", watchedEvent.getEventId())))
+            .andExpect(request().asyncStarted())
+            .andExpect(handler().methodName("streamEventChanges"))
+            .andReturn();
+
+    // When
+    underTest.onChange(new EventChange(1, EventChange.Type.SCORE_UPDATED, otherEvent));
+    underTest.onChange(new EventChange(2, EventChange.Type.SCORE_UPDATED, watchedEvent));
+
+    // Then
+    String body = result.getResponse().getContentAsString();
+    assertThat(body).contains(watchedEvent.getEventId().toString());
+    assertThat(body).doesNotContain(otherEvent.getEventId().toString());
+  }
+
+  @Test
+  void testStreamOfUnknownEventIsNotFound() throws Exception {
+    EventChangeBroadcaster underTest =
+        broadcaster(64, new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    UUID testEventId = UUID.randomUUID();
+    when(eventCache.findById(testEventId)).thenReturn(Optional.empty());
+
+    mockMvc(underTest)
+        .perform(get(String.format("/event/%s/stream", testEventId)))
+        .andExpect(status().isNotFound());
+
+    assertThat(underTest.subscriberCount()).isZero();
+  }
+
+  @Test
+  void testSlowSubscriberIsDisconnectedWhenBufferFills() throws Exception {
+    // Given a sender pool that never gets round to this subscriber
+    EventChangeBroadcaster underTest = broadcaster(2, new ExecutorServiceAdapter(task -> {}));
+    mockMvc(underTest).perform(get("/event/stream")).andExpect(request().asyncStarted());
+    assertThat(underTest.subscriberCount()).isEqualTo(1);
+
+    // When
+    Event testEvent = event(UUID.randomUUID());
+    for (int sequence = 1; sequence <= 3; sequence++) {
+      underTest.onChange(new EventChange(sequence, EventChange.Type.SCORE_UPDATED, testEvent));
+    }
+
+    // Then
+    assertThat(underTest.subscriberCount()).isZero();
+    assertThat(meterRegistry.counter("scoreboard.stream.subscribers.dropped").count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void testStalledSubscriberIsDroppedWithoutHoldingUpOthers() throws Exception {
+    // Given one sender, and a subscriber whose writes block as if its client stopped reading
+    ExecutorService senders = Executors.newFixedThreadPool(1);
+    EventChangeBroadcaster underTest =
+        new EventChangeBroadcaster(
+            objectMapper,
+            meterRegistry,
+            100,
+            64,
+            Duration.ofMinutes(1),
+            Duration.ofMillis(100),
+            senders);
+    Event stalledEvent = event(UUID.randomUUID());
+    Event watchedEvent = event(UUID.randomUUID());
+    when(eventCache.findById(watchedEvent.getEventId())).thenReturn(Optional.of(watchedEvent));
+
+    SseEmitter stalled = underTest.subscribe(stalledEvent.getEventId());
+    MvcResult result =
+        mockMvc(underTest)
+            .perform(get(String.format("/event/%s/stream", watchedEvent.getEventId())))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    synchronized (stalled) {
+      // When the only sender is stuck writing to the stalled subscriber
+      underTest.onChange(new EventChange(1, EventChange.Type.SCORE_UPDATED, stalledEvent));
+      underTest.onChange(new EventChange(2, EventChange.Type.SCORE_UPDATED, watchedEvent));
+
+      // Then the stalled subscriber is dropped and the other still gets its change
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (!result.getResponse().getContentAsString().contains("id:2")
+          && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+      assertThat(result.getResponse().getContentAsString()).contains("id:2");
+      assertThat(underTest.subscriberCount()).isEqualTo(1);
+      assertThat(meterRegistry.counter("scoreboard.stream.subscribers.dropped").count())
+          .isEqualTo(1);
+      assertThat(meterRegistry.get("scoreboard.stream.writes.stalled").gauge().value())
+          .isEqualTo(1);
+    }
+    underTest.shutdown();
+  }
+
+  private EventChangeBroadcaster broadcaster(int bufferSize, ExecutorService senders) {
+    return new EventChangeBroadcaster(
+        objectMapper,
+        meterRegistry,
+        100,
+        bufferSize,
+        Duration.ofMinutes(1),
+        Duration.ofSeconds(5),
+        senders);
+  }
+
+  private MockMvc mockMvc(EventChangeBroadcaster broadcaster) {
+    return MockMvcBuilders.standaloneSetup(new EventStreamEndpoint(eventCache, broadcaster))
+        .build();
+  }
+
+  private static Event event(UUID eventId) {
+    Event event = new Event();
+    event.setEventId(eventId);
+    event.setMatchTitle("World Cup");
+    event.setScoreLastUpdatedTimestamp(LocalDateTime.now());
+    return event;
+  }
+}
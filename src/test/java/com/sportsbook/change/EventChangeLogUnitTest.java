@@ -0,0 +1,100 @@
+package com.sportsbook.change;
+
+import com.sportsbook.model.dto.EventChanges;
+import com.sportsbook.model.entity.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EventChangeLogUnitTest {
+
+  private static final long START = 1_000;
+
+  private final EventChangeLog underTest = new EventChangeLog(START, 4);
+
+  @Test
+  void testReturnsEachChangedEventOnceAsOfItsNewestChange() {
+    // Given
+    Event first = event(UUID.randomUUID(), 0);
+    Event second = event(UUID.randomUUID(), 0);
+    underTest.append(EventChange.Type.CREATED, first, false);
+    underTest.append(EventChange.Type.CREATED, second, false);
+    underTest.append(EventChange.Type.SCORE_UPDATED, event(first.getEventId(), 1), false);
+
+    // When
+    EventChanges changes = underTest.since(underTest.token(START + 1));
+
+    // Then
+    assertThat(changes.isResyncRequired()).isFalse();
+    assertThat(changes.getNext()).isEqualTo(underTest.token(START + 3));
+    assertThat(changes.getEvents())
+        .extracting(Event::getEventId, Event::getHomeTeamScore)
+        .containsExactly(tuple(second.getEventId(), 0), tuple(first.getEventId(), 1));
+    assertThat(underTest.since(underTest.token(START + 3)).getEvents()).isEmpty();
+  }
+
+  @Test
+  void testListsArchivedEventsSeparately() {
+    // Given
+    Event testEvent = event(UUID.randomUUID(), 2);
+    underTest.append(EventChange.Type.SCORE_UPDATED, testEvent, false);
+    underTest.append(EventChange.Type.ARCHIVED, testEvent, false);
+
+    // When
+    EventChanges changes = underTest.since(underTest.token(START));
+
+    // Then
+    assertThat(changes.getEvents()).isEmpty();
+    assertThat(changes.getArchived()).containsExactly(testEvent.getEventId());
+  }
+
+  @Test
+  void testAsksForResyncOnceChangesAreNoLongerKept() {
+    // Given
+    for (int i = 0; i < 6; i++) {
+      underTest.append(EventChange.Type.CREATED, event(UUID.randomUUID(), 0), false);
+    }
+
+    // When Then
+    assertThat(underTest.since(underTest.token(START + 1)).isResyncRequired()).isTrue();
+    assertThat(underTest.since(underTest.token(START + 1)).getNext())
+        .isEqualTo(underTest.token(START + 6));
+    assertThat(underTest.since(underTest.token(START + 2)).isResyncRequired()).isFalse();
+    assertThat(underTest.since(underTest.token(START + 2)).getEvents()).hasSize(4);
+  }
+
+  @Test
+  void testAsksForResyncForASequenceItNeverGaveOut() {
+    // Given
+    underTest.append(EventChange.Type.CREATED, event(UUID.randomUUID(), 0), false);
+
+    // When Then
+    assertThat(underTest.since(underTest.token(START - 1)).isResyncRequired()).isTrue();
+    assertThat(underTest.since(underTest.token(START + 2)).isResyncRequired()).isTrue();
+    assertThat(underTest.since("0").isResyncRequired()).isTrue();
+    assertThat(underTest.since(underTest.token(START)).isResyncRequired()).isFalse();
+  }
+
+  @Test
+  void testAsksForResyncForATokenFromAnotherLog() {
+    // Given
+    // As after a restart, or on another instance whose sequence numbers overlap this one's
+    EventChangeLog other = new EventChangeLog(START, 4);
+    underTest.append(EventChange.Type.CREATED, event(UUID.randomUUID(), 0), false);
+    other.append(EventChange.Type.CREATED, event(UUID.randomUUID(), 0), false);
+
+    // When Then
+    assertThat(underTest.since(other.token(START)).isResyncRequired()).isTrue();
+    assertThat(underTest.since(other.token(START)).getNext()).isEqualTo(underTest.token(START + 1));
+  }
+
+  private static Event event(UUID eventId, int homeTeamScore) {
+    Event event = new Event();
+    event.setEventId(eventId);
+    event.setHomeTeamScore(homeTeamScore);
+    return event;
+  }
+}
@@ -0,0 +1,59 @@
+package com.sportsbook.codec;
+
+import com.sportsbook.model.dto.NewEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NewEventCsvUnitTest {
+
+  @Test
+  void testReadsQuotedFieldsAndEitherLineEnding() throws IOException {
+    List<NewEvent> newEvents =
+        read(
+            "matchTitle,homeTeamName,awayTeamName,kickOff\n"
+                + "World Cup,England,France,2021-08-03\r\n"
+                + "\n"
+                + "\"Cup, \"\"Final\"\"\",\"Line\nBreak\",,2021-08-04");
+
+    assertThat(newEvents).hasSize(2);
+    assertThat(newEvents.get(0).getMatchTitle()).isEqualTo("World Cup");
+    assertThat(newEvents.get(0).getAwayTeamName()).isEqualTo("France");
+    assertThat(newEvents.get(1).getMatchTitle()).isEqualTo("Cup, \"Final\"");
+    assertThat(newEvents.get(1).getHomeTeamName()).isEqualTo("Line\nBreak");
+    assertThat(newEvents.get(1).getAwayTeamName()).isEmpty();
+  }
+
+  @Test
+  void testMissingColumnsAreNull() throws IOException {
+    List<NewEvent> newEvents = read("homeTeamName\nEngland\n");
+
+    assertThat(newEvents).hasSize(1);
+    assertThat(newEvents.get(0).getHomeTeamName()).isEqualTo("England");
+    assertThat(newEvents.get(0).getMatchTitle()).isNull();
+  }
+
+  @Test
+  void testRejectsMalformedRecords() {
+    assertThatThrownBy(() -> read("")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> read("matchTitle,homeTeamName\nWorld Cup\n"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Record 1");
+    assertThatThrownBy(() -> read("matchTitle\n\"World Cup\n"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> read("matchTitle\nWorld \"Cup\"\n"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static List<NewEvent> read(String csv) throws IOException {
+    List<NewEvent> newEvents = new ArrayList<>();
+    NewEventCsv.read(new StringReader(csv), newEvents::add);
+    return newEvents;
+  }
+}
@@ -0,0 +1,86 @@
+package com.sportsbook.codec;
+
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.UpdateScore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoreUpdateCodecUnitTest {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0, 0, 123_456_000);
+
+  @Test
+  void testScoreUpdateRoundTrip() {
+    // Given
+    UpdateScore update = new UpdateScore();
+    update.setHomeTeamScore(3);
+    update.setAwayTeamScore(2);
+    update.setScoreValidAtTimestamp(KICK_OFF);
+
+    // When
+    byte[] encoded = ScoreUpdateCodec.encode(update);
+
+    // Then
+    assertThat(encoded).hasSize(ScoreUpdateCodec.SCORE_UPDATE_SIZE);
+    assertThat(ScoreUpdateCodec.decodeScoreUpdate(ByteBuffer.wrap(encoded))).isEqualTo(update);
+  }
+
+  @Test
+  void testEventScoreUpdatesRoundTripInOrder() {
+    // Given
+    List<EventScoreUpdate> updates =
+        List.of(
+            eventScoreUpdate(UUID.randomUUID(), 1, KICK_OFF.plusMinutes(10)),
+            eventScoreUpdate(UUID.randomUUID(), 0, KICK_OFF),
+            eventScoreUpdate(UUID.randomUUID(), Integer.MAX_VALUE, KICK_OFF.minusYears(60)));
+
+    // When
+    byte[] encoded = ScoreUpdateCodec.encode(updates);
+
+    // Then
+    assertThat(encoded).hasSize(3 * ScoreUpdateCodec.EVENT_SCORE_UPDATE_SIZE);
+    assertThat(ScoreUpdateCodec.decodeEventScoreUpdates(ByteBuffer.wrap(encoded)))
+        .containsExactlyElementsOf(updates);
+  }
+
+  @Test
+  void testTimestampsAreEpochMicros() {
+    assertThat(ScoreUpdateCodec.toEpochMicros(LocalDateTime.of(1970, 1, 1, 0, 0, 1)))
+        .isEqualTo(1_000_000);
+    assertThat(ScoreUpdateCodec.fromEpochMicros(-1))
+        .isEqualTo(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+    assertThat(ScoreUpdateCodec.fromEpochMicros(ScoreUpdateCodec.toEpochMicros(KICK_OFF)))
+        .isEqualTo(KICK_OFF);
+  }
+
+  @Test
+  void testRejectsBodiesThatAreNotWholeRecords() {
+    byte[] encoded =
+        ScoreUpdateCodec.encode(List.of(eventScoreUpdate(UUID.randomUUID(), 1, KICK_OFF)));
+
+    assertThatThrownBy(
+            () -> ScoreUpdateCodec.decodeEventScoreUpdates(ByteBuffer.wrap(encoded, 0, 31)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () -> ScoreUpdateCodec.decodeScoreUpdate(ByteBuffer.wrap(Arrays.copyOf(encoded, 17))))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static EventScoreUpdate eventScoreUpdate(
+      UUID eventId, int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(eventId);
+    update.setHomeTeamScore(homeTeamScore);
+    update.setAwayTeamScore(1);
+    update.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return update;
+  }
+}
@@ -0,0 +1,124 @@
+package com.sportsbook.datasource;
+
+import com.sportsbook.change.EventChange;
+import com.sportsbook.model.entity.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceUnitTest {
+
+  @Mock private DataSource primary;
+  @Mock private DataSource replica;
+  @Mock private Connection primaryConnection;
+  @Mock private Connection replicaConnection;
+  @Mock private ReplicaLag replicaLag;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final ReplicaReads replicaReads = new ReplicaReads(Duration.ofHours(1));
+
+  private ReadReplicaRoutingDataSource underTest;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+    lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+    replicaReads.bindTo(meterRegistry);
+    underTest = new ReadReplicaRoutingDataSource(primary, replica, replicaReads, replicaLag);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  void testMarkedReadsGoToTheReplica() {
+    when(replicaLag.isWithinBound()).thenReturn(true);
+
+    assertThat(replicaReads.read(this::connection)).isSameAs(replicaConnection);
+    assertThat(servedBy("replica")).isEqualTo(1.0);
+  }
+
+  @Test
+  void testEverythingElseGoesToThePrimary() {
+    // Not marked
+    assertThat(connection()).isSameAs(primaryConnection);
+
+    // Marked, but not in a read-only transaction
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    assertThat(replicaReads.read(this::connection)).isSameAs(primaryConnection);
+  }
+
+  @Test
+  void testReadsGoToThePrimaryWhileTheReplicaIsBehind() {
+    when(replicaLag.isWithinBound()).thenReturn(false);
+
+    assertThat(replicaReads.read(this::connection)).isSameAs(primaryConnection);
+    assertThat(servedBy("primary")).isEqualTo(1.0);
+  }
+
+  @Test
+  void testAnEventJustChangedIsReadFromThePrimary() {
+    lenient().when(replicaLag.isWithinBound()).thenReturn(true);
+    UUID changedEventId = UUID.randomUUID();
+    replicaReads.onChange(new EventChange(1, EventChange.Type.SCORE_UPDATED, event(changedEventId)));
+
+    assertThat(replicaReads.read(changedEventId, this::connection)).isSameAs(primaryConnection);
+    assertThat(replicaReads.read(UUID.randomUUID(), this::connection))
+        .isSameAs(replicaConnection);
+  }
+
+  @Test
+  void testAnEventChangedLongerAgoIsReadFromTheReplica() {
+    when(replicaLag.isWithinBound()).thenReturn(true);
+    ReplicaReads noReadYourWrites = new ReplicaReads(Duration.ZERO);
+    underTest = new ReadReplicaRoutingDataSource(primary, replica, noReadYourWrites, replicaLag);
+    UUID changedEventId = UUID.randomUUID();
+    noReadYourWrites.onChange(
+        new EventChange(1, EventChange.Type.SCORE_UPDATED, event(changedEventId)));
+
+    assertThat(noReadYourWrites.read(changedEventId, this::connection))
+        .isSameAs(replicaConnection);
+  }
+
+  private double servedBy(String source) {
+    return meterRegistry
+        .get("scoreboard.replica.reads")
+        .tag("source", source)
+        .functionCounter()
+        .count();
+  }
+
+  private Connection connection() {
+    try {
+      return underTest.getConnection();
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Event event(UUID eventId) {
+    Event event = new Event();
+    event.setEventId(eventId);
+    return event;
+  }
+}
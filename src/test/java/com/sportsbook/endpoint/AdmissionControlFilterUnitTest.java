@@ -0,0 +1,105 @@
+package com.sportsbook.endpoint;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterUnitTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final AdmissionControlFilter underTest =
+      new AdmissionControlFilter(
+          meterRegistry,
+          1,
+          0,
+          Duration.ofMillis(10),
+          1,
+          1,
+          Duration.ofMillis(50),
+          Duration.ofMillis(1500));
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testWritesOverTheLimitAreTurnedAway() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    Future<MockHttpServletResponse> held = executor.submit(() -> send("PUT", entered));
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // One write may wait for the slot, and gives up after the queue timeout
+    MockHttpServletResponse queued = send("PUT", null);
+    assertThat(queued.getStatus()).isEqualTo(429);
+    assertThat(queued.getHeader("Retry-After")).isEqualTo("2");
+
+    release.countDown();
+    assertThat(held.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    assertThat(send("POST", null).getStatus()).isEqualTo(200);
+    assertThat(meterRegistry.counter("scoreboard.admission.rejected", "kind", "write").count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void testReadsAndWritesHaveSeparateLimits() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    executor.submit(() -> send("GET", entered));
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // The read queue holds nobody, so a second read is refused at once
+    assertThat(send("GET", null).getStatus()).isEqualTo(429);
+    assertThat(send("PUT", null).getStatus()).isEqualTo(200);
+    assertThat(meterRegistry.counter("scoreboard.admission.rejected", "kind", "read").count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void testEventStreamsAreNotCounted() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    executor.submit(() -> send("GET", entered));
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/event/stream");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    underTest.doFilter(request, response, (req, res) -> {});
+    assertThat(response.getStatus()).isEqualTo(200);
+  }
+
+  // Holds its slot until released if entered is given
+  private MockHttpServletResponse send(String method, CountDownLatch entered) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/event");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    FilterChain chain =
+        (req, res) -> {
+          if (entered != null) {
+            entered.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        };
+    underTest.doFilter(request, response, chain);
+    return response;
+  }
+}
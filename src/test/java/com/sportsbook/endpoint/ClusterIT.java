@@ -0,0 +1,226 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.Application;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs two instances in cluster mode against the same database. */
+public class ClusterIT {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(10);
+
+  private static ConfigurableApplicationContext nodeA;
+  private static ConfigurableApplicationContext nodeB;
+
+  private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+  @BeforeAll
+  static void startNodes() {
+    nodeA = startNode();
+    nodeB = startNode();
+  }
+
+  @AfterAll
+  static void stopNodes() {
+    nodeA.close();
+    nodeB.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    nodeA.getBean(EventRepository.class).deleteAllInBatch();
+  }
+
+  @Test
+  void testChangesOnOneInstanceReachTheOther() {
+    NewEvent newEvent = new NewEvent();
+    newEvent.setMatchTitle("World Cup");
+    newEvent.setHomeTeamName("England");
+    newEvent.setAwayTeamName("France");
+    ResponseEntity<Void> createResponse =
+        testRestTemplate.postForEntity(url(nodeA, "/event"), newEvent, Void.class);
+    assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    UUID eventId = nodeA.getBean(EventRepository.class).findAll().get(0).getEventId();
+
+    // The list is served from the cache only, so this waits on the notification
+    awaitUntil(
+        () ->
+            Arrays.stream(testRestTemplate.getForObject(url(nodeB, "/event"), Event[].class))
+                .anyMatch(event -> event.getEventId().equals(eventId)));
+
+    ResponseEntity<Void> updateResponse =
+        testRestTemplate.exchange(
+            url(nodeA, "/event/" + eventId),
+            HttpMethod.PUT,
+            new HttpEntity<>(updateScore(3, KICK_OFF.plusMinutes(30))),
+            Void.class);
+    assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    awaitUntil(() -> getEvent(nodeB, eventId).getHomeTeamScore() == 3);
+    assertThat(getEvent(nodeB, eventId).getScoreLastUpdatedTimestamp())
+        .isEqualTo(KICK_OFF.plusMinutes(30));
+  }
+
+  @Test
+  void testScoreWithTheSameTimestampReplacesTheOtherInstances() {
+    UUID eventId = nodeA.getBean(EventRepository.class).saveAndFlush(new Event()).getEventId();
+    LocalDateTime validAt = KICK_OFF.plusMinutes(30);
+
+    ResponseEntity<Void> firstResponse =
+        testRestTemplate.exchange(
+            url(nodeA, "/event/" + eventId),
+            HttpMethod.PUT,
+            new HttpEntity<>(updateScore(1, validAt)),
+            Void.class);
+    assertThat(firstResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    awaitUntil(() -> getEvent(nodeB, eventId).getHomeTeamScore() == 1);
+
+    // A local update at the same timestamp is applied, so the other instance has to follow it
+    ResponseEntity<Void> secondResponse =
+        testRestTemplate.exchange(
+            url(nodeB, "/event/" + eventId),
+            HttpMethod.PUT,
+            new HttpEntity<>(updateScore(2, validAt)),
+            Void.class);
+    assertThat(secondResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    awaitUntil(() -> getEvent(nodeA, eventId).getHomeTeamScore() == 2);
+    assertThat(getEvent(nodeB, eventId).getHomeTeamScore()).isEqualTo(2);
+    assertThat(nodeA.getBean(EventRepository.class).findById(eventId).get().getHomeTeamScore())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void testConcurrentBatchesOnBothInstancesKeepTheNewest() throws Exception {
+    EventRepository eventRepository = nodeA.getBean(EventRepository.class);
+    List<UUID> eventIds = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      eventIds.add(eventRepository.saveAndFlush(new Event()).getEventId());
+    }
+
+    // Each batch moves every event to its own minute, so overlapping batches race on every row
+    List<Integer> minutes = new ArrayList<>();
+    for (int minute = 1; minute <= 40; minute++) {
+      minutes.add(minute);
+    }
+    Collections.shuffle(minutes);
+
+    ExecutorService clients = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ResponseEntity<ScoreUpdateOutcome[]>>> responses = new ArrayList<>();
+      for (int i = 0; i < minutes.size(); i++) {
+        ConfigurableApplicationContext node = i % 2 == 0 ? nodeA : nodeB;
+        int minute = minutes.get(i);
+        List<EventScoreUpdate> batch =
+            eventIds.stream()
+                .map(eventId -> eventScoreUpdate(eventId, minute))
+                .collect(Collectors.toList());
+        responses.add(
+            clients.submit(
+                () ->
+                    testRestTemplate.exchange(
+                        url(node, "/event/scores"),
+                        HttpMethod.PUT,
+                        new HttpEntity<>(batch),
+                        ScoreUpdateOutcome[].class)));
+      }
+      for (Future<ResponseEntity<ScoreUpdateOutcome[]>> response : responses) {
+        assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+      }
+    } finally {
+      clients.shutdown();
+      clients.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    for (Event stored : eventRepository.findAllById(eventIds)) {
+      assertThat(stored.getHomeTeamScore()).isEqualTo(40);
+      assertThat(stored.getScoreLastUpdatedTimestamp()).isEqualTo(KICK_OFF.plusMinutes(40));
+    }
+    for (UUID eventId : eventIds) {
+      awaitUntil(() -> getEvent(nodeA, eventId).getHomeTeamScore() == 40);
+      awaitUntil(() -> getEvent(nodeB, eventId).getHomeTeamScore() == 40);
+    }
+  }
+
+  private static ConfigurableApplicationContext startNode() {
+    return new SpringApplicationBuilder(Application.class)
+        .profiles("test")
+        .run(
+            "--server.port=0",
+            "--management.server.port=0",
+            "--scoreboard.cluster.enabled=true",
+            "--scoreboard.history.enabled=false");
+  }
+
+  private static String url(ConfigurableApplicationContext node, String path) {
+    return String.format(
+        "http://localhost:%s%s", node.getEnvironment().getProperty("local.server.port"), path);
+  }
+
+  private Event getEvent(ConfigurableApplicationContext node, UUID eventId) {
+    return testRestTemplate.getForObject(url(node, "/event/" + eventId), Event.class);
+  }
+
+  private static void awaitUntil(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + PROPAGATION_TIMEOUT.toNanos();
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("Timed out waiting for the change").isLessThan(deadline);
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AssertionError(e);
+      }
+    }
+  }
+
+  private static EventScoreUpdate eventScoreUpdate(UUID eventId, int minute) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(eventId);
+    update.setHomeTeamScore(minute);
+    update.setAwayTeamScore(0);
+    update.setScoreValidAtTimestamp(KICK_OFF.plusMinutes(minute));
+    return update;
+  }
+
+  private static UpdateScore updateScore(int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(homeTeamScore);
+    updateScore.setAwayTeamScore(0);
+    updateScore.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return updateScore;
+  }
+}
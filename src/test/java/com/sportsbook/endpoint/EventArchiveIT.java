@@ -0,0 +1,146 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.dto.UpdateStatus;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import com.sportsbook.repository.EventRepository;
+import com.sportsbook.service.EventArchiver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"scoreboard.archive.delay=0s", "scoreboard.archive.interval-ms=3600000"})
+@ActiveProfiles("test")
+public class EventArchiveIT {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  @Autowired private EventRepository eventRepository;
+
+  @Autowired private EventCache eventCache;
+
+  @Autowired private EventArchiver eventArchiver;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @LocalServerPort private int port;
+
+  private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+  @BeforeEach
+  public void setUp() {
+    eventRepository.deleteAllInBatch();
+    jdbcTemplate.update("delete from scoreboard.event_archive");
+    eventCache.reload();
+  }
+
+  @Test
+  void testFinishedEventsLeaveTheListButStayReachable() {
+    UUID finishedId = saveEvent("World Cup", "England", "France");
+    UUID liveId = saveEvent("World Cup", "Spain", "Italy");
+    eventCache.reload();
+
+    assertThat(putStatus(liveId, EventStatus.LIVE).getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(putStatus(finishedId, EventStatus.LIVE).getStatusCode()).isEqualTo(HttpStatus.OK);
+    testRestTemplate.exchange(
+        url("/event/" + finishedId),
+        HttpMethod.PUT,
+        new HttpEntity<>(updateScore(2)),
+        Void.class);
+    assertThat(putStatus(finishedId, EventStatus.FINISHED).getStatusCode())
+        .isEqualTo(HttpStatus.OK);
+    assertThat(putStatus(finishedId, EventStatus.LIVE).getStatusCode())
+        .isEqualTo(HttpStatus.CONFLICT);
+
+    assertThat(eventArchiver.archive()).isEqualTo(1);
+    assertThat(eventArchiver.archive()).isZero();
+
+    Event[] hot = testRestTemplate.getForObject(url("/event"), Event[].class);
+    assertThat(Arrays.stream(hot).map(Event::getEventId)).containsExactly(liveId);
+    assertThat(eventRepository.existsById(finishedId)).isFalse();
+
+    Event archived = testRestTemplate.getForObject(url("/event/" + finishedId), Event.class);
+    assertThat(archived.getStatus()).isEqualTo(EventStatus.FINISHED);
+    assertThat(archived.getFinishedAt()).isNotNull();
+    assertThat(archived.getHomeTeamScore()).isEqualTo(2);
+    assertThat(archived.getScoreLastUpdatedTimestamp()).isEqualTo(KICK_OFF.plusMinutes(80));
+
+    Event[] found =
+        testRestTemplate.getForObject(url("/event/archive?team=England"), Event[].class);
+    assertThat(Arrays.stream(found).map(Event::getEventId)).containsExactly(finishedId);
+    assertThat(testRestTemplate.getForObject(url("/event/archive?team=Spain"), Event[].class))
+        .isEmpty();
+
+    // Archived events take no more score updates
+    ResponseEntity<Void> lateUpdate =
+        testRestTemplate.exchange(
+            url("/event/" + finishedId),
+            HttpMethod.PUT,
+            new HttpEntity<>(updateScore(3)),
+            Void.class);
+    assertThat(lateUpdate.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  void testNewEventsAreScheduled() {
+    UUID eventId = saveEvent("World Cup", "England", "France");
+    eventCache.reload();
+
+    assertThat(testRestTemplate.getForObject(url("/event/" + eventId), Event.class).getStatus())
+        .isEqualTo(EventStatus.SCHEDULED);
+    assertThat(putStatus(UUID.randomUUID(), EventStatus.LIVE).getStatusCode())
+        .isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  private UUID saveEvent(String matchTitle, String homeTeamName, String awayTeamName) {
+    Event event = new Event();
+    event.setMatchTitle(matchTitle);
+    event.setHomeTeamName(homeTeamName);
+    event.setAwayTeamName(awayTeamName);
+    return eventRepository.saveAndFlush(event).getEventId();
+  }
+
+  private ResponseEntity<Void> putStatus(UUID eventId, EventStatus status) {
+    UpdateStatus updateStatus = new UpdateStatus();
+    updateStatus.setStatus(status);
+    return testRestTemplate.exchange(
+        url("/event/" + eventId + "/status"),
+        HttpMethod.PUT,
+        new HttpEntity<>(updateStatus),
+        Void.class);
+  }
+
+  private String url(String path) {
+    return String.format("http://localhost:%d%s", port, path);
+  }
+
+  private static UpdateScore updateScore(int homeTeamScore) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(homeTeamScore);
+    updateScore.setAwayTeamScore(0);
+    updateScore.setScoreValidAtTimestamp(KICK_OFF.plusMinutes(80));
+    return updateScore;
+  }
+}
@@ -0,0 +1,195 @@
+package com.sportsbook.endpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.change.EventChangePublisher;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventArchiveRepository;
+import com.sportsbook.repository.EventRepository;
+import com.sportsbook.service.EventLocks;
+import com.sportsbook.service.ScoreService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class EventEndpointConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int UPDATES = 2_000;
+
+  @Mock private EventRepository eventRepository;
+
+  @Mock private EventArchiveRepository eventArchiveRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final Map<UUID, Event> table = new ConcurrentHashMap<>();
+
+  private final Map<UUID, CountDownLatch> saveBarriers = new ConcurrentHashMap<>();
+
+  private EventEndpoint underTest;
+
+  @BeforeEach
+  void setUp() {
+    // Behaves like the database: every read returns a detached copy and every save replaces the row
+    lenient()
+        .when(eventRepository.findById(any(UUID.class)))
+        .thenAnswer(
+            invocation ->
+                Optional.ofNullable(table.get(invocation.<UUID>getArgument(0))).map(Event::copy));
+    lenient()
+        .when(eventRepository.saveAndFlush(any(Event.class)))
+        .thenAnswer(
+            invocation -> {
+              Event event = invocation.getArgument(0);
+              CountDownLatch barrier = saveBarriers.get(event.getEventId());
+              if (barrier != null) {
+                barrier.countDown();
+                assertThat(barrier.await(5, TimeUnit.SECONDS)).isTrue();
+              }
+              Thread.yield();
+              table.put(event.getEventId(), event.copy());
+              return event;
+            });
+
+    EventCache eventCache =
+        new EventCache(eventRepository, new ObjectMapper(), new SimpleMeterRegistry(), false);
+    EventChangePublisher eventChanges = new EventChangePublisher(eventCache, event -> {});
+    underTest =
+        new EventEndpoint(
+            eventRepository,
+            eventArchiveRepository,
+            eventCache,
+            eventChanges,
+            new ScoreService(
+                eventRepository,
+                new EventLocks(),
+                eventChanges,
+                transactionManager,
+                Optional.empty(),
+                Optional.empty(),
+                new SimpleMeterRegistry(),
+                false),
+            new ObjectMapper());
+  }
+
+  @Test
+  void testConcurrentUpdatesToSameEventKeepNewestScore() throws Exception {
+    // Given
+    UUID eventId = insertEvent();
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+    List<Integer> minutes = new ArrayList<>();
+    for (int i = 0; i < UPDATES; i++) {
+      minutes.add(i);
+    }
+    Collections.shuffle(minutes);
+
+    // When
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int minute : minutes) {
+        UpdateScore update = updateScore(minute, kickOff.plusSeconds(minute));
+        futures.add(executor.submit(() -> underTest.updateScore(eventId, update)));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    Event actualEvent = table.get(eventId);
+    assertThat(actualEvent.getScoreLastUpdatedTimestamp())
+        .isEqualTo(kickOff.plusSeconds(UPDATES - 1));
+    assertThat(actualEvent.getHomeTeamScore()).isEqualTo(UPDATES - 1);
+    assertThat(actualEvent.getAwayTeamScore()).isEqualTo(UPDATES - 1);
+
+    // A late update with an old timestamp is still rejected
+    underTest.updateScore(eventId, updateScore(0, kickOff));
+    assertThat(table.get(eventId).getHomeTeamScore()).isEqualTo(UPDATES - 1);
+  }
+
+  @Test
+  void testUpdatesToDifferentEventsRunInParallel() throws Exception {
+    // Given
+    UUID firstEventId = insertEvent();
+    UUID secondEventId = insertEvent();
+
+    // Both saves must be in flight at the same time for either of them to complete
+    CountDownLatch bothSaving = new CountDownLatch(2);
+    saveBarriers.put(firstEventId, bothSaving);
+    saveBarriers.put(secondEventId, bothSaving);
+
+    // When
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> first =
+          executor.submit(
+              () -> underTest.updateScore(firstEventId, updateScore(1, LocalDateTime.now())));
+      Future<?> second =
+          executor.submit(
+              () -> underTest.updateScore(secondEventId, updateScore(2, LocalDateTime.now())));
+      first.get(10, TimeUnit.SECONDS);
+      second.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertThat(table.get(firstEventId).getHomeTeamScore()).isEqualTo(1);
+    assertThat(table.get(secondEventId).getHomeTeamScore()).isEqualTo(2);
+  }
+
+  private UUID insertEvent() {
+    EventLocks eventLocks = new EventLocks();
+    UUID eventId;
+    do {
+      eventId = UUID.randomUUID();
+    } while (!table.isEmpty() && sharesStripe(eventLocks, eventId));
+
+    Event event = new Event();
+    event.setEventId(eventId);
+    table.put(eventId, event);
+    return eventId;
+  }
+
+  private boolean sharesStripe(EventLocks eventLocks, UUID eventId) {
+    return table.keySet().stream()
+        .anyMatch(existing -> eventLocks.lockFor(existing) == eventLocks.lockFor(eventId));
+  }
+
+  private static UpdateScore updateScore(int score, LocalDateTime scoreValidAtTimestamp) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(score);
+    updateScore.setAwayTeamScore(score);
+    updateScore.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return updateScore;
+  }
+}
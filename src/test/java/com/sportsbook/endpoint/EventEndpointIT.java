@@ -1,8 +1,15 @@
 package com.sportsbook.endpoint;
 
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.codec.ScoreUpdateCodec;
 import com.sportsbook.model.entity.Event;
 import com.sportsbook.repository.EventRepository;
+import com.sportsbook.model.dto.EventChanges;
+import com.sportsbook.model.dto.EventPage;
+import com.sportsbook.model.dto.EventScoreUpdate;
 import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
 import com.sportsbook.model.dto.UpdateScore;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,17 +18,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
-import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -36,16 +53,20 @@ public class EventEndpointIT {
 
   @Autowired private EventRepository eventRepository;
 
+  @Autowired private EventCache eventCache;
+
   @LocalServerPort private int port;
 
   @BeforeEach
   public void setUp() {
     eventRepository.deleteAllInBatch();
+    eventCache.reload();
   }
 
   @Test
   void testGetAllEvents() {
-    LocalDateTime testLocalDateTime = LocalDateTime.now();
+    // Postgres keeps timestamps to the microsecond; newer JDK clocks go finer than that
+    LocalDateTime testLocalDateTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
     Event testEvent = new Event();
     testEvent.setMatchTitle(MATCH_TITLE);
@@ -55,6 +76,7 @@ public class EventEndpointIT {
     testEvent.setAwayTeamScore(1);
     testEvent.setScoreLastUpdatedTimestamp(testLocalDateTime);
     eventRepository.saveAndFlush(testEvent).getEventId();
+    eventCache.reload();
 
     TestRestTemplate testRestTemplate = new TestRestTemplate();
     String url = String.format("http://localhost:%d/event", port);
@@ -72,9 +94,136 @@ public class EventEndpointIT {
     assertThat(actualEvent.getScoreLastUpdatedTimestamp()).isEqualTo(testLocalDateTime);
   }
 
+  @Test
+  void testGetAllEventsGzip() throws IOException {
+    Event testEvent = new Event();
+    testEvent.setMatchTitle(MATCH_TITLE);
+    UUID testEventId = eventRepository.saveAndFlush(testEvent).getEventId();
+    eventCache.reload();
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event", port);
+    ResponseEntity<String> plainResponse = testRestTemplate.getForEntity(url, String.class);
+    String plainBody = plainResponse.getBody();
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    ResponseEntity<byte[]> gzipResponse =
+        testRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+    assertThat(gzipResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(gzipResponse.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    assertThat(gzipResponse.getHeaders().getVary()).isEqualTo(List.of(HttpHeaders.ACCEPT_ENCODING));
+    try (GZIPInputStream gzip =
+        new GZIPInputStream(new ByteArrayInputStream(gzipResponse.getBody()))) {
+      String unzippedBody = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+      assertThat(unzippedBody).isEqualTo(plainBody).contains(testEventId.toString());
+    }
+
+    // Each coding has its own tag, and either one answers for the current list
+    String plainETag = plainResponse.getHeaders().getETag();
+    String gzipETag = gzipResponse.getHeaders().getETag();
+    assertThat(gzipETag).isNotNull().isNotEqualTo(plainETag);
+    headers.setIfNoneMatch(plainETag);
+    ResponseEntity<byte[]> notModified =
+        testRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(notModified.getHeaders().getETag()).isEqualTo(gzipETag);
+  }
+
+  @Test
+  void testGetAllEventsModifiedByRowLoadedIntoTheCache() {
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event", port);
+    String eTag = testRestTemplate.getForEntity(url, String.class).getHeaders().getETag();
+
+    // Written behind the API's back, then loaded by a read of the event
+    Event testEvent = new Event();
+    testEvent.setMatchTitle(MATCH_TITLE);
+    UUID testEventId = eventRepository.saveAndFlush(testEvent).getEventId();
+    assertThat(testRestTemplate.getForEntity(url + "/" + testEventId, Event.class).getStatusCode())
+        .isEqualTo(HttpStatus.OK);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setIfNoneMatch(eTag);
+    ResponseEntity<String> response =
+        testRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).contains(testEventId.toString());
+    assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+  }
+
+  @Test
+  void testGetAllEventsFiltered() {
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+    Event worldCup = new Event();
+    worldCup.setMatchTitle(MATCH_TITLE);
+    worldCup.setHomeTeamName(HOME_TEAM);
+    worldCup.setAwayTeamName(AWAY_TEAM);
+    worldCup.setScoreLastUpdatedTimestamp(kickOff);
+    Event friendly = new Event();
+    friendly.setMatchTitle("Friendly");
+    friendly.setHomeTeamName("Italy");
+    friendly.setAwayTeamName(HOME_TEAM);
+    friendly.setScoreLastUpdatedTimestamp(kickOff.plusDays(1));
+    UUID worldCupId = eventRepository.saveAndFlush(worldCup).getEventId();
+    UUID friendlyId = eventRepository.saveAndFlush(friendly).getEventId();
+    eventCache.reload();
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event", port);
+
+    Event[] byTeam = testRestTemplate.getForObject(url + "?team=England", Event[].class);
+    Event[] byTitle = testRestTemplate.getForObject(url + "?matchTitle=World Cup", Event[].class);
+    Event[] byTeamSince =
+        testRestTemplate.getForObject(
+            url + "?team=England&updatedSince=2021-08-04T00:00:00", Event[].class);
+    Event[] none = testRestTemplate.getForObject(url + "?team=Spain", Event[].class);
+
+    assertThat(byTeam.length).isEqualTo(2);
+    assertThat(byTitle.length).isEqualTo(1);
+    assertThat(byTitle[0].getEventId()).isEqualTo(worldCupId);
+    assertThat(byTitle[0].getScoreLastUpdatedTimestamp()).isEqualTo(kickOff);
+    assertThat(byTeamSince.length).isEqualTo(1);
+    assertThat(byTeamSince[0].getEventId()).isEqualTo(friendlyId);
+    assertThat(none.length).isZero();
+  }
+
+  @Test
+  void testGetEventPagesAndStream() {
+    Set<UUID> testEventIds = new HashSet<>();
+    for (int i = 0; i < 5; i++) {
+      Event testEvent = new Event();
+      testEvent.setMatchTitle(MATCH_TITLE);
+      testEventIds.add(eventRepository.saveAndFlush(testEvent).getEventId());
+    }
+    eventCache.reload();
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    Set<UUID> pagedEventIds = new HashSet<>();
+    String cursor = null;
+    do {
+      String url =
+          cursor == null
+              ? String.format("http://localhost:%d/event?limit=2", port)
+              : String.format("http://localhost:%d/event?limit=2&cursor=%s", port, cursor);
+      ResponseEntity<EventPage> pageResponse = testRestTemplate.getForEntity(url, EventPage.class);
+      assertThat(pageResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+      pageResponse.getBody().getEvents().forEach(event -> pagedEventIds.add(event.getEventId()));
+      cursor = pageResponse.getBody().getNextCursor();
+    } while (cursor != null);
+
+    assertThat(pagedEventIds).isEqualTo(testEventIds);
+
+    String streamUrl = String.format("http://localhost:%d/event?stream=true", port);
+    ResponseEntity<Event[]> streamResponse = testRestTemplate.getForEntity(streamUrl, Event[].class);
+    assertThat(streamResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(streamResponse.getBody().length).isEqualTo(5);
+  }
+
   @Test
   void testGetEventById() {
-    LocalDateTime testLocalDateTime = LocalDateTime.now();
+    LocalDateTime testLocalDateTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
     Event testEvent = new Event();
     testEvent.setMatchTitle(MATCH_TITLE);
@@ -126,6 +275,106 @@ public class EventEndpointIT {
     assertThat(actualEvent.getAwayTeamScore()).isZero();
   }
 
+  @Test
+  void testCreateEventsInBulk() {
+    List<NewEvent> testNewEvents = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      NewEvent newEvent = new NewEvent();
+      newEvent.setMatchTitle("Round " + i);
+      newEvent.setHomeTeamName(HOME_TEAM + "\t" + i);
+      newEvent.setAwayTeamName(i % 2 == 0 ? null : AWAY_TEAM);
+      testNewEvents.add(newEvent);
+    }
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    ResponseEntity<UUID[]> bulkResponse =
+        testRestTemplate.postForEntity(
+            String.format("http://localhost:%d/event/bulk", port), testNewEvents, UUID[].class);
+
+    assertThat(bulkResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    UUID[] eventIds = bulkResponse.getBody();
+    assertThat(eventIds.length).isEqualTo(2000);
+    for (int i : new int[] {0, 1, 1999}) {
+      Event actualEvent = eventRepository.findById(eventIds[i]).get();
+      assertThat(actualEvent.getMatchTitle()).isEqualTo("Round " + i);
+      assertThat(actualEvent.getHomeTeamName()).isEqualTo(HOME_TEAM + "\t" + i);
+      assertThat(actualEvent.getAwayTeamName()).isEqualTo(i % 2 == 0 ? null : AWAY_TEAM);
+      assertThat(actualEvent.getHomeTeamScore()).isZero();
+    }
+    assertThat(eventCache.size()).isEqualTo(2000);
+  }
+
+  @Test
+  void testCreateEventsInBulkFromNdjsonAndCsv() {
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event/bulk", port);
+
+    HttpHeaders ndjsonHeaders = new HttpHeaders();
+    ndjsonHeaders.setContentType(MediaType.APPLICATION_NDJSON);
+    String ndjson =
+        "{\"matchTitle\":\"World Cup\",\"homeTeamName\":\"England\"}\n"
+            + "{\"matchTitle\":\"Euros\",\"homeTeamName\":\"Italy\"}\n";
+    ResponseEntity<UUID[]> ndjsonResponse =
+        testRestTemplate.postForEntity(url, new HttpEntity<>(ndjson, ndjsonHeaders), UUID[].class);
+
+    HttpHeaders csvHeaders = new HttpHeaders();
+    csvHeaders.setContentType(MediaType.parseMediaType("text/csv"));
+    String csv = "matchTitle,homeTeamName\nFriendly,Brazil\n";
+    ResponseEntity<UUID[]> csvResponse =
+        testRestTemplate.postForEntity(url, new HttpEntity<>(csv, csvHeaders), UUID[].class);
+
+    assertThat(ndjsonResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(csvResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(eventRepository.findById(ndjsonResponse.getBody()[1]).get().getHomeTeamName())
+        .isEqualTo("Italy");
+    assertThat(eventRepository.findById(csvResponse.getBody()[0]).get().getMatchTitle())
+        .isEqualTo("Friendly");
+
+    ResponseEntity<String> badCsvResponse =
+        testRestTemplate.postForEntity(
+            url, new HttpEntity<>("matchTitle\n\"Unterminated\n", csvHeaders), String.class);
+    assertThat(badCsvResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(eventRepository.count()).isEqualTo(3);
+  }
+
+  @Test
+  void testPollForChanges() {
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String changesUrl = String.format("http://localhost:%d/event/changes?since={since}", port);
+    EventChanges firstPoll = testRestTemplate.getForObject(changesUrl, EventChanges.class, 0);
+    assertThat(firstPoll.isResyncRequired()).isTrue();
+
+    List<NewEvent> testNewEvents = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      NewEvent newEvent = new NewEvent();
+      newEvent.setMatchTitle("Round " + i);
+      testNewEvents.add(newEvent);
+    }
+    UUID[] eventIds =
+        testRestTemplate.postForObject(
+            String.format("http://localhost:%d/event/bulk", port), testNewEvents, UUID[].class);
+    UpdateScore testUpdateScore = new UpdateScore();
+    testUpdateScore.setHomeTeamScore(1);
+    testUpdateScore.setScoreValidAtTimestamp(LocalDateTime.now());
+    testRestTemplate.put(
+        String.format("http://localhost:%d/event/%s", port, eventIds[1]), testUpdateScore);
+
+    EventChanges changes =
+        testRestTemplate.getForObject(changesUrl, EventChanges.class, firstPoll.getNext());
+
+    assertThat(changes.isResyncRequired()).isFalse();
+    assertThat(changes.getNext()).isNotEqualTo(firstPoll.getNext());
+    Assertions.assertThat(changes.getEvents())
+        .extracting(Event::getEventId)
+        .containsExactly(eventIds[0], eventIds[2], eventIds[1]);
+    assertThat(changes.getEvents().get(2).getHomeTeamScore()).isEqualTo(1);
+    assertThat(
+            testRestTemplate
+                .getForObject(changesUrl, EventChanges.class, changes.getNext())
+                .getEvents())
+        .isEqualTo(List.of());
+  }
+
   @Test
   void testUpdateScore() {
     Event testEvent = new Event();
@@ -174,4 +423,124 @@ public class EventEndpointIT {
     assertThat(actualEvent.getHomeTeamScore()).isEqualTo(5);
     assertThat(actualEvent.getAwayTeamScore()).isEqualTo(3);
   }
+
+  @Test
+  void testUpdateScores() {
+    Event testEvent = new Event();
+    testEvent.setScoreLastUpdatedTimestamp(LocalDateTime.now().minusMinutes(10));
+    UUID testEventId = eventRepository.saveAndFlush(testEvent).getEventId();
+
+    LocalDateTime testLocalDateTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    EventScoreUpdate applied = new EventScoreUpdate();
+    applied.setEventId(testEventId);
+    applied.setHomeTeamScore(2);
+    applied.setAwayTeamScore(1);
+    applied.setScoreValidAtTimestamp(testLocalDateTime);
+
+    EventScoreUpdate stale = new EventScoreUpdate();
+    stale.setEventId(testEventId);
+    stale.setHomeTeamScore(1);
+    stale.setAwayTeamScore(1);
+    stale.setScoreValidAtTimestamp(testLocalDateTime.minusMinutes(5));
+
+    EventScoreUpdate notFound = new EventScoreUpdate();
+    notFound.setEventId(UUID.randomUUID());
+    notFound.setScoreValidAtTimestamp(testLocalDateTime);
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event/scores", port);
+    HttpEntity<List<EventScoreUpdate>> requestUpdate =
+        new HttpEntity<>(List.of(applied, stale, notFound));
+    ResponseEntity<ScoreUpdateOutcome[]> testResponse =
+        testRestTemplate.exchange(url, HttpMethod.PUT, requestUpdate, ScoreUpdateOutcome[].class);
+
+    assertThat(testResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(testResponse.getBody()[0].getResult()).isEqualTo(ScoreUpdateResult.APPLIED);
+    assertThat(testResponse.getBody()[1].getResult()).isEqualTo(ScoreUpdateResult.STALE);
+    assertThat(testResponse.getBody()[2].getResult()).isEqualTo(ScoreUpdateResult.NOT_FOUND);
+
+    Event actualEvent = eventRepository.findById(testEventId).get();
+    assertThat(actualEvent.getHomeTeamScore()).isEqualTo(2);
+    assertThat(actualEvent.getAwayTeamScore()).isEqualTo(1);
+  }
+
+  @Test
+  void testUpdateScoreBinary() {
+    Event testEvent = new Event();
+    UUID testEventId = eventRepository.saveAndFlush(testEvent).getEventId();
+
+    LocalDateTime testLocalDateTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    UpdateScore testUpdateScore = new UpdateScore();
+    testUpdateScore.setHomeTeamScore(5);
+    testUpdateScore.setAwayTeamScore(3);
+    testUpdateScore.setScoreValidAtTimestamp(testLocalDateTime);
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event/%s", port, testEventId);
+    ResponseEntity testResponse =
+        testRestTemplate.exchange(
+            url,
+            HttpMethod.PUT,
+            binaryBody(ScoreUpdateCodec.encode(testUpdateScore)),
+            Void.class);
+
+    assertThat(testResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    Event actualEvent = eventRepository.findById(testEventId).get();
+    assertThat(actualEvent.getHomeTeamScore()).isEqualTo(5);
+    assertThat(actualEvent.getAwayTeamScore()).isEqualTo(3);
+    assertThat(actualEvent.getScoreLastUpdatedTimestamp()).isEqualTo(testLocalDateTime);
+
+    ResponseEntity truncatedResponse =
+        testRestTemplate.exchange(url, HttpMethod.PUT, binaryBody(new byte[12]), Void.class);
+    assertThat(truncatedResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  void testUpdateScoresBinary() {
+    Event testEvent = new Event();
+    UUID testEventId = eventRepository.saveAndFlush(testEvent).getEventId();
+
+    LocalDateTime testLocalDateTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    EventScoreUpdate applied = new EventScoreUpdate();
+    applied.setEventId(testEventId);
+    applied.setHomeTeamScore(2);
+    applied.setAwayTeamScore(1);
+    applied.setScoreValidAtTimestamp(testLocalDateTime);
+
+    EventScoreUpdate stale = new EventScoreUpdate();
+    stale.setEventId(testEventId);
+    stale.setHomeTeamScore(1);
+    stale.setAwayTeamScore(1);
+    stale.setScoreValidAtTimestamp(testLocalDateTime.minusMinutes(5));
+
+    EventScoreUpdate notFound = new EventScoreUpdate();
+    notFound.setEventId(UUID.randomUUID());
+    notFound.setScoreValidAtTimestamp(testLocalDateTime);
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event/scores", port);
+    ResponseEntity<ScoreUpdateOutcome[]> testResponse =
+        testRestTemplate.exchange(
+            url,
+            HttpMethod.PUT,
+            binaryBody(ScoreUpdateCodec.encode(List.of(applied, stale, notFound))),
+            ScoreUpdateOutcome[].class);
+
+    assertThat(testResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(testResponse.getBody()[0].getResult()).isEqualTo(ScoreUpdateResult.APPLIED);
+    assertThat(testResponse.getBody()[1].getResult()).isEqualTo(ScoreUpdateResult.STALE);
+    assertThat(testResponse.getBody()[2].getResult()).isEqualTo(ScoreUpdateResult.NOT_FOUND);
+    assertThat(testResponse.getBody()[2].getEventId()).isEqualTo(notFound.getEventId());
+
+    Event actualEvent = eventRepository.findById(testEventId).get();
+    assertThat(actualEvent.getHomeTeamScore()).isEqualTo(2);
+    assertThat(actualEvent.getAwayTeamScore()).isEqualTo(1);
+  }
+
+  private static HttpEntity<byte[]> binaryBody(byte[] body) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(ScoreUpdateCodec.MEDIA_TYPE);
+    return new HttpEntity<>(body, headers);
+  }
 }
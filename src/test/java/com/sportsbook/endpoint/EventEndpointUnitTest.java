@@ -1,31 +1,48 @@
 package com.sportsbook.endpoint;
 
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.change.EventChangePublisher;
 import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import com.sportsbook.repository.EventArchiveRepository;
 import com.sportsbook.repository.EventRepository;
+import com.sportsbook.model.dto.EventFilter;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.EventSummary;
 import com.sportsbook.model.dto.NewEvent;
 import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.dto.UpdateStatus;
+import com.sportsbook.service.EventLocks;
+import com.sportsbook.service.ScoreService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jayway.jsonpath.JsonPath;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,12 +61,37 @@ class EventEndpointUnitTest {
 
   @Mock private EventRepository eventRepository;
 
-  @InjectMocks private EventEndpoint underTest;
+  @Mock private EventArchiveRepository eventArchiveRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private EventEndpoint underTest;
 
   private MockMvc mockMvc;
 
   @BeforeEach
   void setUp() {
+    EventCache eventCache =
+        new EventCache(eventRepository, objectMapper, new SimpleMeterRegistry(), false);
+    EventChangePublisher eventChanges = new EventChangePublisher(eventCache, event -> {});
+    underTest =
+        new EventEndpoint(
+            eventRepository,
+            eventArchiveRepository,
+            eventCache,
+            eventChanges,
+            new ScoreService(
+                eventRepository,
+                new EventLocks(),
+                eventChanges,
+                transactionManager,
+                Optional.empty(),
+                Optional.empty(),
+                meterRegistry,
+                false),
+            objectMapper);
     mockMvc = MockMvcBuilders.standaloneSetup(underTest).build();
   }
 
@@ -79,6 +121,251 @@ class EventEndpointUnitTest {
         .andExpect(jsonPath("$[0].awayTeamScore", is(1)));
   }
 
+  @Test
+  void testGetAllEventsNotModified() throws Exception {
+    // Given
+    when(eventRepository.findAll()).thenReturn(List.of(new Event()));
+
+    String eTag =
+        mockMvc
+            .perform(get("/event"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    // When Then
+    mockMvc
+        .perform(get("/event").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void testGetAllEventsModifiedAfterEventCreated() throws Exception {
+    // Given
+    Event createdEvent = new Event();
+    createdEvent.setMatchTitle(MATCH_TITLE);
+    when(eventRepository.findAll())
+        .thenReturn(List.of(new Event()), List.of(new Event(), createdEvent));
+
+    String eTag =
+        mockMvc.perform(get("/event")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    NewEvent newTestEvent = new NewEvent();
+    newTestEvent.setMatchTitle(MATCH_TITLE);
+    mockMvc.perform(
+        post("/event").content(asJsonString(newTestEvent)).contentType(MediaType.APPLICATION_JSON));
+
+    // When Then
+    mockMvc
+        .perform(get("/event").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+  }
+
+  @Test
+  void testGetAllEventsModifiedByRowWrittenOutsideTheApi() throws Exception {
+    // Given
+    Event testEvent = new Event();
+    testEvent.setMatchTitle(MATCH_TITLE);
+    when(eventRepository.findAll()).thenReturn(List.of(testEvent));
+
+    String eTag =
+        mockMvc.perform(get("/event")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When
+    testEvent.setHomeTeamScore(1);
+
+    // Then
+    mockMvc
+        .perform(get("/event").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].homeTeamScore", is(1)))
+        .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+  }
+
+  @Test
+  void testGetChangesSinceLastPoll() throws Exception {
+    // Given
+    MvcResult firstPoll =
+        mockMvc
+            .perform(get("/event/changes").param("since", "0"))
+            .andExpect(status().isOk())
+            .andExpect(handler().methodName("getChanges"))
+            .andExpect(jsonPath("resyncRequired", is(true)))
+            .andReturn();
+    String next = JsonPath.parse(firstPoll.getResponse().getContentAsString()).read("next");
+
+    NewEvent newTestEvent = new NewEvent();
+    newTestEvent.setMatchTitle(MATCH_TITLE);
+
+    // When
+    mockMvc.perform(
+        post("/event").content(asJsonString(newTestEvent)).contentType(MediaType.APPLICATION_JSON));
+
+    // Then
+    MvcResult secondPoll =
+        mockMvc
+            .perform(get("/event/changes").param("since", next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("resyncRequired", is(false)))
+            .andExpect(jsonPath("next", not(next)))
+            .andExpect(jsonPath("events.length()", is(1)))
+            .andExpect(jsonPath("events[0].matchTitle", is(MATCH_TITLE)))
+            .andExpect(jsonPath("archived.length()", is(0)))
+            .andReturn();
+    String latest = JsonPath.parse(secondPoll.getResponse().getContentAsString()).read("next");
+    mockMvc
+        .perform(get("/event/changes").param("since", latest))
+        .andExpect(jsonPath("resyncRequired", is(false)))
+        .andExpect(jsonPath("next", is(latest)))
+        .andExpect(jsonPath("events.length()", is(0)));
+  }
+
+  @Test
+  void testGetEventByIdNotModifiedUntilScoreChanges() throws Exception {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+    Event testEvent = new Event();
+    testEvent.setEventId(testEventId);
+    testEvent.setMatchTitle(MATCH_TITLE);
+    when(eventRepository.findById(testEventId)).thenReturn(Optional.of(testEvent));
+
+    String url = String.format("/event/%s", testEventId);
+    String eTag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When Then
+    mockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    testEvent.setHomeTeamScore(1);
+
+    mockMvc
+        .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("homeTeamScore", is(1)));
+  }
+
+  @Test
+  void testGetAllEventsFiltered() throws Exception {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+    EventFilter filter = new EventFilter(HOME_TEAM, MATCH_TITLE, kickOff);
+    when(eventRepository.findAllMatching(filter))
+        .thenReturn(
+            List.of(
+                new EventSummary(
+                    testEventId,
+                    MATCH_TITLE,
+                    HOME_TEAM,
+                    AWAY_TEAM,
+                    1,
+                    0,
+                    kickOff,
+                    EventStatus.LIVE,
+                    null)));
+
+    // When
+    mockMvc
+        .perform(
+            get("/event")
+                .param("team", HOME_TEAM)
+                .param("matchTitle", MATCH_TITLE)
+                .param("updatedSince", "2021-08-03T15:00:00"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(1)))
+        .andExpect(jsonPath("$[0].eventId", is(testEventId.toString())))
+        .andExpect(jsonPath("$[0].homeTeamScore", is(1)))
+        .andExpect(jsonPath("$[0].status", is("LIVE")));
+
+    // Then
+    verify(eventRepository, never()).findAll();
+  }
+
+  @Test
+  void testGetEventPage() throws Exception {
+    // Given
+    Event firstEvent = new Event();
+    firstEvent.setEventId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    firstEvent.setMatchTitle(MATCH_TITLE);
+    Event secondEvent = new Event();
+    secondEvent.setEventId(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+
+    // When
+    when(eventRepository.findFirstPage(PageRequest.of(0, 2)))
+        .thenReturn(List.of(firstEvent, secondEvent));
+
+    // Then
+    String nextCursor =
+        mockMvc
+            .perform(get("/event").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(handler().methodName("getEventPage"))
+            .andExpect(jsonPath("events.length()", is(1)))
+            .andExpect(jsonPath("events[0].matchTitle", is(MATCH_TITLE)))
+            .andExpect(jsonPath("nextCursor").isString())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    nextCursor = JsonPath.read(nextCursor, "nextCursor");
+
+    when(eventRepository.findPageAfter(firstEvent.getEventId(), PageRequest.of(0, 2)))
+        .thenReturn(List.of(secondEvent));
+
+    mockMvc
+        .perform(get("/event").param("limit", "1").param("cursor", nextCursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("events.length()", is(1)))
+        .andExpect(jsonPath("events[0].eventId", is(secondEvent.getEventId().toString())))
+        .andExpect(jsonPath("nextCursor").doesNotExist());
+  }
+
+  @Test
+  void testGetEventPageRejectsBadArguments() throws Exception {
+    mockMvc.perform(get("/event").param("limit", "0")).andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/event").param("limit", "10").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void testStreamAllEvents() throws Exception {
+    // Given
+    Event testEvent = new Event();
+    testEvent.setMatchTitle(MATCH_TITLE);
+    testEvent.setHomeTeamScore(2);
+
+    // When
+    doAnswer(
+            invocation -> {
+              Consumer<Event> action = invocation.getArgument(0);
+              action.accept(testEvent);
+              action.accept(testEvent);
+              return null;
+            })
+        .when(eventRepository)
+        .forEachEvent(any());
+
+    // Then
+    MvcResult result =
+        mockMvc
+            .perform(get("/event").param("stream", "true"))
+            .andExpect(request().asyncStarted())
+            .andExpect(handler().methodName("streamAllEvents"))
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(2)))
+        .andExpect(jsonPath("$[1].matchTitle", is(MATCH_TITLE)))
+        .andExpect(jsonPath("$[1].homeTeamScore", is(2)));
+  }
+
   @Test
   void testGetEventById() throws Exception {
     // Given
@@ -138,6 +425,56 @@ class EventEndpointUnitTest {
     Assertions.assertThat(capturedEvent.getAwayTeamScore()).isZero();
   }
 
+  @Test
+  void testCreateEventsInBulkFromCsv() throws Exception {
+    // Given
+    String csv =
+        "awayTeamName,matchTitle,homeTeamName\r\n"
+            + "France,World Cup,England\r\n"
+            + "\"Bosnia, Herzegovina\",\"Euro \"\"24\"\"\",Wales\r\n";
+
+    // When
+    MvcResult result =
+        mockMvc
+            .perform(post("/event/bulk").content(csv).contentType("text/csv"))
+            .andExpect(status().isCreated())
+            .andExpect(handler().methodName("createEventsFromCsv"))
+            .andReturn();
+
+    // Then
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Event>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+    verify(eventRepository).copyAll(eventsCaptor.capture());
+
+    List<Event> capturedEvents = eventsCaptor.getValue();
+    Assertions.assertThat(capturedEvents)
+        .extracting(Event::getMatchTitle)
+        .containsExactly(MATCH_TITLE, "Euro \"24\"");
+    Assertions.assertThat(capturedEvents)
+        .extracting(Event::getAwayTeamName)
+        .containsExactly(AWAY_TEAM, "Bosnia, Herzegovina");
+    List<String> returnedIds = JsonPath.read(result.getResponse().getContentAsString(), "$");
+    Assertions.assertThat(returnedIds)
+        .containsExactly(
+            capturedEvents.get(0).getEventId().toString(),
+            capturedEvents.get(1).getEventId().toString());
+  }
+
+  @Test
+  void testCreateEventsInBulkRejectsNamesTooLong() throws Exception {
+    NewEvent newTestEvent = new NewEvent();
+    newTestEvent.setMatchTitle("x".repeat(256));
+
+    mockMvc
+        .perform(
+            post("/event/bulk")
+                .content(asJsonString(List.of(newTestEvent)))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    verify(eventRepository, never()).copyAll(any());
+  }
+
   @Test
   void testUpdateScoreFirstTime() throws Exception {
     // Given
@@ -239,6 +576,8 @@ class EventEndpointUnitTest {
 
     // Then
     verify(eventRepository, never()).saveAndFlush(any(Event.class));
+    assertThat(meterRegistry.counter("scoreboard.score.updates", "result", "stale").count())
+        .isEqualTo(1.0);
   }
 
   @Test
@@ -249,6 +588,7 @@ class EventEndpointUnitTest {
     when(eventRepository.findById(testEventId)).thenReturn(Optional.empty());
 
     UpdateScore testUpdateScore = new UpdateScore();
+    testUpdateScore.setScoreValidAtTimestamp(LocalDateTime.now());
 
     // When
     mockMvc
@@ -262,6 +602,172 @@ class EventEndpointUnitTest {
 
     // Then
     verify(eventRepository, never()).saveAndFlush(any(Event.class));
+    assertThat(meterRegistry.counter("scoreboard.score.updates", "result", "not_found").count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void testUpdateStatusToFinished() throws Exception {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+
+    Event testEvent = new Event();
+    testEvent.setEventId(testEventId);
+    testEvent.setStatus(EventStatus.LIVE);
+    when(eventRepository.findById(testEventId)).thenReturn(Optional.of(testEvent));
+
+    UpdateStatus testUpdateStatus = new UpdateStatus();
+    testUpdateStatus.setStatus(EventStatus.FINISHED);
+
+    // When
+    mockMvc
+        .perform(
+            put(String.format("/event/%s/status", testEventId))
+                .content(asJsonString(testUpdateStatus))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(handler().methodName("updateStatus"));
+
+    // Then
+    ArgumentCaptor<LocalDateTime> finishedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(eventRepository)
+        .updateStatus(eq(testEventId), eq(EventStatus.FINISHED), finishedAt.capture());
+    assertThat(finishedAt.getValue()).isNotNull();
+  }
+
+  @Test
+  void testUpdateStatusNeverMovesBack() throws Exception {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+
+    Event testEvent = new Event();
+    testEvent.setEventId(testEventId);
+    testEvent.setStatus(EventStatus.FINISHED);
+    when(eventRepository.findById(testEventId)).thenReturn(Optional.of(testEvent));
+
+    UpdateStatus testUpdateStatus = new UpdateStatus();
+    testUpdateStatus.setStatus(EventStatus.LIVE);
+
+    // When Then
+    mockMvc
+        .perform(
+            put(String.format("/event/%s/status", testEventId))
+                .content(asJsonString(testUpdateStatus))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isConflict());
+
+    verify(eventRepository, never()).updateStatus(any(), any(), any());
+  }
+
+  @Test
+  void testGetArchivedEventById() throws Exception {
+    // Given
+    UUID testEventId = UUID.randomUUID();
+
+    Event testEvent = new Event();
+    testEvent.setEventId(testEventId);
+    testEvent.setMatchTitle(MATCH_TITLE);
+    testEvent.setStatus(EventStatus.FINISHED);
+    testEvent.setFinishedAt(LocalDateTime.of(2021, 8, 3, 17, 0));
+
+    // When Then
+    when(eventRepository.findById(testEventId)).thenReturn(Optional.empty());
+    when(eventArchiveRepository.findById(testEventId)).thenReturn(Optional.of(testEvent));
+
+    mockMvc
+        .perform(get(String.format("/event/%s", testEventId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("matchTitle", is(MATCH_TITLE)))
+        .andExpect(jsonPath("status", is("FINISHED")));
+  }
+
+  @Test
+  void testUpdateScores() throws Exception {
+    // Given
+    LocalDateTime testLocalDateTime = LocalDateTime.now();
+    UUID liveEventId = UUID.randomUUID();
+    UUID unknownEventId = UUID.randomUUID();
+
+    Event liveEvent = new Event();
+    liveEvent.setEventId(liveEventId);
+    liveEvent.setHomeTeamScore(1);
+    liveEvent.setScoreLastUpdatedTimestamp(testLocalDateTime.minusMinutes(10));
+    when(eventRepository.findAllById(anySet())).thenReturn(List.of(liveEvent));
+
+    List<EventScoreUpdate> testUpdates =
+        List.of(
+            eventScoreUpdate(liveEventId, 2, testLocalDateTime),
+            eventScoreUpdate(unknownEventId, 1, testLocalDateTime),
+            eventScoreUpdate(liveEventId, 3, testLocalDateTime.minusMinutes(5)));
+
+    // When
+    mockMvc
+        .perform(
+            put("/event/scores")
+                .content(asJsonString(testUpdates))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(handler().handlerType(EventEndpoint.class))
+        .andExpect(handler().methodName("updateScores"))
+        .andExpect(jsonPath("$[0].eventId", is(liveEventId.toString())))
+        .andExpect(jsonPath("$[0].result", is("APPLIED")))
+        .andExpect(jsonPath("$[1].eventId", is(unknownEventId.toString())))
+        .andExpect(jsonPath("$[1].result", is("NOT_FOUND")))
+        .andExpect(jsonPath("$[2].result", is("STALE")));
+
+    // Then
+    verify(eventRepository).saveAll(List.of(liveEvent));
+    verify(eventRepository, never()).saveAndFlush(any(Event.class));
+    assertThat(liveEvent.getHomeTeamScore()).isEqualTo(2);
+    assertThat(liveEvent.getScoreLastUpdatedTimestamp()).isEqualTo(testLocalDateTime);
+  }
+
+  @Test
+  void testUpdateScoresRejectsUpdateWithoutEventId() throws Exception {
+    List<EventScoreUpdate> testUpdates = List.of(eventScoreUpdate(null, 1, LocalDateTime.now()));
+
+    mockMvc
+        .perform(
+            put("/event/scores")
+                .content(asJsonString(testUpdates))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    verify(eventRepository, never()).findAllById(any());
+  }
+
+  @Test
+  void testUpdateScoreRejectsUpdateWithoutTimestamp() throws Exception {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(1);
+
+    mockMvc
+        .perform(
+            put(String.format("/event/%s", UUID.randomUUID()))
+                .content(asJsonString(updateScore))
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    verify(eventRepository, never()).findById(any());
+  }
+
+  @Test
+  void testAcceptsGzip() {
+    assertThat(EventEndpoint.acceptsGzip("gzip, deflate, br")).isTrue();
+    assertThat(EventEndpoint.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+    assertThat(EventEndpoint.acceptsGzip("gzip;q=0")).isFalse();
+    assertThat(EventEndpoint.acceptsGzip("gzip; q=0.000")).isFalse();
+    assertThat(EventEndpoint.acceptsGzip("identity")).isFalse();
+    assertThat(EventEndpoint.acceptsGzip(null)).isFalse();
+  }
+
+  private static EventScoreUpdate eventScoreUpdate(
+      UUID eventId, int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(eventId);
+    update.setHomeTeamScore(homeTeamScore);
+    update.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return update;
   }
 
   public static String asJsonString(Object obj) throws JsonProcessingException {
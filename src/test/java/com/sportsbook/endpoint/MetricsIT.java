@@ -0,0 +1,78 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class MetricsIT {
+
+  @Autowired private EventRepository eventRepository;
+
+  @LocalServerPort private int port;
+
+  @LocalManagementPort private int managementPort;
+
+  @Test
+  void testPrometheusScrapeOnManagementPort() {
+    // Given
+    UUID testEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+    UpdateScore testUpdateScore = new UpdateScore();
+    testUpdateScore.setScoreValidAtTimestamp(LocalDateTime.of(2021, 8, 3, 15, 0));
+    UpdateScore testStaleUpdateScore = new UpdateScore();
+    testStaleUpdateScore.setScoreValidAtTimestamp(LocalDateTime.of(2021, 8, 3, 14, 0));
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String eventUrl = String.format("http://localhost:%d/event/%s", port, testEventId);
+    testRestTemplate.exchange(
+        eventUrl, HttpMethod.PUT, new HttpEntity<>(testUpdateScore), Void.class);
+    testRestTemplate.exchange(
+        eventUrl, HttpMethod.PUT, new HttpEntity<>(testStaleUpdateScore), Void.class);
+    testRestTemplate.getForEntity(
+        String.format("http://localhost:%d/event/%s", port, UUID.randomUUID()), String.class);
+
+    // When
+    ResponseEntity<String> actualResponse =
+        testRestTemplate.getForEntity(
+            String.format("http://localhost:%d/actuator/prometheus", managementPort), String.class);
+
+    // Then
+    assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(actualResponse.getBody())
+        .contains("http_server_requests_seconds_bucket{")
+        .contains("uri=\"/event/{eventId}\"")
+        .contains("status=\"404\"")
+        .contains("scoreboard_lock_wait_seconds_bucket{")
+        .contains("spring_data_repository_invocations_seconds_bucket{")
+        .contains("scoreboard_score_updates_total{result=\"stale\",} 1.0")
+        .contains("hikaricp_connections_active");
+    assertThat(
+            testRestTemplate
+                .getForEntity(
+                    String.format("http://localhost:%d/actuator/prometheus", port), String.class)
+                .getStatusCode())
+        .isEqualTo(HttpStatus.NOT_FOUND);
+  }
+}
@@ -0,0 +1,302 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.codec.ScoreUpdateCodec;
+import com.sportsbook.model.dto.EventPage;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({"reactive", "test"})
+public class ReactiveEventEndpointIT {
+
+  public static final String MATCH_TITLE = "World Cup";
+  public static final String HOME_TEAM = "England";
+  public static final String AWAY_TEAM = "France";
+
+  @Autowired private DatabaseClient databaseClient;
+
+  @Autowired private WebTestClient webTestClient;
+
+  @BeforeEach
+  public void setUp() {
+    databaseClient.sql("delete from scoreboard.event").then().block();
+  }
+
+  @Test
+  void testCreateAndGetEvent() {
+    UUID testEventId = createEvent(MATCH_TITLE);
+
+    Event actualEvent =
+        webTestClient
+            .get()
+            .uri("/event/{eventId}", testEventId)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(Event.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(actualEvent.getMatchTitle()).isEqualTo(MATCH_TITLE);
+    assertThat(actualEvent.getHomeTeamName()).isEqualTo(HOME_TEAM);
+    assertThat(actualEvent.getAwayTeamName()).isEqualTo(AWAY_TEAM);
+    assertThat(actualEvent.getHomeTeamScore()).isZero();
+    assertThat(actualEvent.getScoreLastUpdatedTimestamp()).isNull();
+
+    webTestClient
+        .get()
+        .uri("/event/{eventId}", UUID.randomUUID())
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  @Test
+  void testGetEventByIdNotModified() {
+    UUID testEventId = createEvent();
+
+    String eTag =
+        webTestClient
+            .get()
+            .uri("/event/{eventId}", testEventId)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Event.class)
+            .getResponseHeaders()
+            .getETag();
+
+    webTestClient
+        .get()
+        .uri("/event/{eventId}", testEventId)
+        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectBody()
+        .isEmpty();
+  }
+
+  @Test
+  void testUpdateScoreKeepsNewest() {
+    UUID testEventId = createEvent();
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+    putScore(testEventId, 2, kickOff.plusMinutes(30));
+    putScore(testEventId, 1, kickOff.plusMinutes(10));
+
+    Event actualEvent = getEvent(testEventId);
+    assertThat(actualEvent.getHomeTeamScore()).isEqualTo(2);
+    assertThat(actualEvent.getScoreLastUpdatedTimestamp()).isEqualTo(kickOff.plusMinutes(30));
+
+    webTestClient
+        .put()
+        .uri("/event/{eventId}", UUID.randomUUID())
+        .bodyValue(updateScore(1, kickOff))
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  @Test
+  void testUpdateScores() {
+    UUID testEventId = createEvent();
+    UUID unknownEventId = UUID.randomUUID();
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+    List<ScoreUpdateOutcome> actualOutcomes =
+        webTestClient
+            .put()
+            .uri("/event/scores")
+            .bodyValue(
+                List.of(
+                    eventScoreUpdate(testEventId, 2, kickOff.plusMinutes(20)),
+                    eventScoreUpdate(testEventId, 1, kickOff.plusMinutes(10)),
+                    eventScoreUpdate(unknownEventId, 1, kickOff)))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(ScoreUpdateOutcome.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(actualOutcomes)
+        .containsExactly(
+            new ScoreUpdateOutcome(testEventId, ScoreUpdateResult.APPLIED),
+            new ScoreUpdateOutcome(testEventId, ScoreUpdateResult.STALE),
+            new ScoreUpdateOutcome(unknownEventId, ScoreUpdateResult.NOT_FOUND));
+    assertThat(getEvent(testEventId).getHomeTeamScore()).isEqualTo(2);
+  }
+
+  @Test
+  void testUpdateScoresBinary() {
+    UUID testEventId = createEvent();
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+    webTestClient
+        .put()
+        .uri("/event/{eventId}", testEventId)
+        .contentType(ScoreUpdateCodec.MEDIA_TYPE)
+        .bodyValue(ScoreUpdateCodec.encode(updateScore(1, kickOff.plusMinutes(5))))
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    List<ScoreUpdateOutcome> actualOutcomes =
+        webTestClient
+            .put()
+            .uri("/event/scores")
+            .contentType(ScoreUpdateCodec.MEDIA_TYPE)
+            .bodyValue(
+                ScoreUpdateCodec.encode(
+                    List.of(
+                        eventScoreUpdate(testEventId, 2, kickOff.plusMinutes(20)),
+                        eventScoreUpdate(testEventId, 0, kickOff))))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(ScoreUpdateOutcome.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(actualOutcomes)
+        .containsExactly(
+            new ScoreUpdateOutcome(testEventId, ScoreUpdateResult.APPLIED),
+            new ScoreUpdateOutcome(testEventId, ScoreUpdateResult.STALE));
+    assertThat(getEvent(testEventId).getScoreLastUpdatedTimestamp())
+        .isEqualTo(kickOff.plusMinutes(20));
+
+    webTestClient
+        .put()
+        .uri("/event/scores")
+        .contentType(ScoreUpdateCodec.MEDIA_TYPE)
+        .bodyValue(new byte[33])
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  @Test
+  void testGetAllEventsAndPages() {
+    for (int i = 0; i < 5; i++) {
+      createEvent();
+    }
+
+    List<Event> allEvents =
+        webTestClient
+            .get()
+            .uri("/event")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(Event.class)
+            .returnResult()
+            .getResponseBody();
+    assertThat(allEvents).hasSize(5);
+
+    EventPage firstPage =
+        webTestClient
+            .get()
+            .uri("/event?limit=3")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(EventPage.class)
+            .returnResult()
+            .getResponseBody();
+    EventPage secondPage =
+        webTestClient
+            .get()
+            .uri("/event?limit=3&cursor={cursor}", firstPage.getNextCursor())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(EventPage.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(firstPage.getEvents()).containsExactlyElementsOf(allEvents.subList(0, 3));
+    assertThat(secondPage.getEvents()).containsExactlyElementsOf(allEvents.subList(3, 5));
+    assertThat(secondPage.getNextCursor()).isNull();
+
+    webTestClient.get().uri("/event?limit=0").exchange().expectStatus().isBadRequest();
+  }
+
+  private UUID createEvent() {
+    return createEvent(MATCH_TITLE + " " + UUID.randomUUID());
+  }
+
+  private UUID createEvent(String matchTitle) {
+    NewEvent newEvent = new NewEvent();
+    newEvent.setMatchTitle(matchTitle);
+    newEvent.setHomeTeamName(HOME_TEAM);
+    newEvent.setAwayTeamName(AWAY_TEAM);
+    webTestClient.post().uri("/event").bodyValue(newEvent).exchange().expectStatus().isCreated();
+
+    return databaseClient
+        .sql("select event_id from scoreboard.event where match_title = :matchTitle")
+        .bind("matchTitle", matchTitle)
+        .map(row -> row.get("event_id", UUID.class))
+        .one()
+        .block();
+  }
+
+  private Event getEvent(UUID eventId) {
+    return webTestClient
+        .get()
+        .uri("/event/{eventId}", eventId)
+        .exchange()
+        .expectBody(Event.class)
+        .returnResult()
+        .getResponseBody();
+  }
+
+  private void putScore(UUID eventId, int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    webTestClient
+        .put()
+        .uri("/event/{eventId}", eventId)
+        .bodyValue(updateScore(homeTeamScore, scoreValidAtTimestamp))
+        .exchange()
+        .expectStatus()
+        .isOk();
+  }
+
+  private static UpdateScore updateScore(int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(homeTeamScore);
+    updateScore.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return updateScore;
+  }
+
+  private static EventScoreUpdate eventScoreUpdate(
+      UUID eventId, int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(eventId);
+    update.setHomeTeamScore(homeTeamScore);
+    update.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return update;
+  }
+}
@@ -0,0 +1,105 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.model.entity.EventStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the reactive stack against a database of its own, so the event table is the one
+ * schema-reactive.sql creates rather than the one Hibernate leaves behind for the other tests.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({"reactive", "test"})
+public class ReactiveSchemaIT {
+
+  private static final String DATABASE = "scoreboard_reactive_schema";
+
+  @Autowired private DatabaseClient databaseClient;
+
+  @Autowired private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void freshDatabase(DynamicPropertyRegistry registry) throws SQLException {
+    try (Connection connection =
+            DriverManager.getConnection(
+                "jdbc:postgresql://localhost:16432/postgres", "postgres", "postgres");
+        Statement statement = connection.createStatement()) {
+      statement.execute("DROP DATABASE IF EXISTS " + DATABASE);
+      statement.execute("CREATE DATABASE " + DATABASE);
+    }
+    registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:16432/" + DATABASE);
+  }
+
+  @Test
+  void testCreateAndGetEvent() {
+    NewEvent newEvent = new NewEvent();
+    newEvent.setMatchTitle("World Cup");
+    newEvent.setHomeTeamName("England");
+    newEvent.setAwayTeamName("France");
+    webTestClient.post().uri("/event").bodyValue(newEvent).exchange().expectStatus().isCreated();
+
+    UUID testEventId =
+        databaseClient
+            .sql("select event_id from scoreboard.event")
+            .map(row -> row.get("event_id", UUID.class))
+            .one()
+            .block();
+    Event actualEvent =
+        webTestClient
+            .get()
+            .uri("/event/{eventId}", testEventId)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(Event.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertThat(actualEvent.getMatchTitle()).isEqualTo("World Cup");
+    assertThat(actualEvent.getStatus()).isEqualTo(EventStatus.SCHEDULED);
+    assertThat(actualEvent.getFinishedAt()).isNull();
+  }
+
+  @Test
+  void testEventTableHasTheFilterIndexes() {
+    List<String> indexes =
+        databaseClient
+            .sql(
+                "select indexname from pg_indexes"
+                    + " where schemaname = 'scoreboard' and tablename = 'event'")
+            .map(row -> row.get("indexname", String.class))
+            .all()
+            .collectList()
+            .block();
+
+    assertThat(indexes)
+        .contains(
+            "event_match_title",
+            "event_home_team_name",
+            "event_away_team_name",
+            "event_score_last_updated_timestamp",
+            "event_finished_at");
+  }
+}
@@ -0,0 +1,181 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.model.dto.EventPage;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs with the event cache off and a second Postgres as the read replica. Nothing replicates to
+ * it, so each test copies rows across itself and can leave the replica behind the primary to show
+ * which one a read was served by.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "scoreboard.cache.enabled=false",
+      "scoreboard.replica.enabled=true",
+      "scoreboard.replica.datasource.jdbc-url=jdbc:postgresql://localhost:16433/postgres",
+      "scoreboard.replica.read-your-writes=2s",
+      "scoreboard.replica.lag-check-interval-ms=100"
+    })
+@ActiveProfiles("test")
+public class ReadReplicaIT {
+
+  @Autowired private EventRepository eventRepository;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  private DataSource replicaDataSource;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @LocalServerPort private int port;
+
+  private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+  private JdbcTemplate replica;
+
+  @BeforeEach
+  void setUp() {
+    eventRepository.deleteAllInBatch();
+    replica = new JdbcTemplate(replicaDataSource);
+    replica.execute("create schema if not exists scoreboard");
+    replica.execute(
+        "create table if not exists scoreboard.event ("
+            + "event_id uuid primary key, match_title varchar(255), home_team_name varchar(255),"
+            + " away_team_name varchar(255), home_team_score integer not null,"
+            + " away_team_score integer not null, score_last_updated_timestamp timestamp,"
+            + " status varchar(16) not null, finished_at timestamp)");
+    replica.execute("truncate scoreboard.event");
+  }
+
+  @Test
+  void testReadsComeFromTheReplica() {
+    Event testEvent = eventRepository.saveAndFlush(new Event());
+    replicate(testEvent.getEventId());
+    double replicaReads = replicaReads();
+
+    // Changed on the primary behind the application's back, so not a write of its own
+    testEvent.setHomeTeamScore(3);
+    eventRepository.saveAndFlush(testEvent);
+
+    assertThat(getEvent(testEvent.getEventId()).getHomeTeamScore()).isZero();
+    assertThat(testRestTemplate.getForObject(url("/event"), Event[].class)[0].getHomeTeamScore())
+        .isZero();
+    assertThat(
+            testRestTemplate
+                .getForObject(url("/event?limit=10"), EventPage.class)
+                .getEvents()
+                .get(0)
+                .getHomeTeamScore())
+        .isZero();
+    assertThat(replicaReads()).isEqualTo(replicaReads + 3);
+
+    replicate(testEvent.getEventId());
+    assertThat(getEvent(testEvent.getEventId()).getHomeTeamScore()).isEqualTo(3);
+  }
+
+  @Test
+  void testAClientReadsItsOwnScoreUpdate() throws InterruptedException {
+    UUID testEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+    replicate(testEventId);
+
+    UpdateScore testUpdateScore = new UpdateScore();
+    testUpdateScore.setHomeTeamScore(5);
+    testUpdateScore.setScoreValidAtTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    testRestTemplate.put(url("/event/" + testEventId), testUpdateScore);
+
+    // Only the event just written is read from the primary
+    assertThat(getEvent(testEventId).getHomeTeamScore()).isEqualTo(5);
+    assertThat(testRestTemplate.getForObject(url("/event"), Event[].class)[0].getHomeTeamScore())
+        .isZero();
+
+    // Until the read-your-writes window has passed
+    Thread.sleep(2_500);
+    assertThat(getEvent(testEventId).getHomeTeamScore()).isZero();
+    replicate(testEventId);
+    assertThat(getEvent(testEventId).getHomeTeamScore()).isEqualTo(5);
+  }
+
+  @Test
+  void testAStaleListDoesNotHideTheNextChange() {
+    Event testEvent = eventRepository.saveAndFlush(new Event());
+    replicate(testEvent.getEventId());
+    testEvent.setHomeTeamScore(2);
+    eventRepository.saveAndFlush(testEvent);
+
+    ResponseEntity<Event[]> stale = testRestTemplate.getForEntity(url("/event"), Event[].class);
+    assertThat(stale.getBody()[0].getHomeTeamScore()).isZero();
+
+    // The tag describes the stale list, so the caught-up one no longer matches it
+    replicate(testEvent.getEventId());
+    HttpHeaders headers = new HttpHeaders();
+    headers.setIfNoneMatch(stale.getHeaders().getETag());
+    ResponseEntity<Event[]> caughtUp =
+        testRestTemplate.exchange(
+            url("/event"), HttpMethod.GET, new HttpEntity<>(headers), Event[].class);
+    assertThat(caughtUp.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(caughtUp.getBody()[0].getHomeTeamScore()).isEqualTo(2);
+  }
+
+  // Plays the part of replication for one event
+  private void replicate(UUID eventId) {
+    Event event = eventRepository.findById(eventId).get();
+    replica.update("delete from scoreboard.event where event_id = ?", eventId);
+    replica.update(
+        "insert into scoreboard.event (event_id, match_title, home_team_name, away_team_name,"
+            + " home_team_score, away_team_score, score_last_updated_timestamp, status,"
+            + " finished_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+        event.getEventId(),
+        event.getMatchTitle(),
+        event.getHomeTeamName(),
+        event.getAwayTeamName(),
+        event.getHomeTeamScore(),
+        event.getAwayTeamScore(),
+        event.getScoreLastUpdatedTimestamp(),
+        event.getStatus().name(),
+        event.getFinishedAt());
+  }
+
+  private Event getEvent(UUID eventId) {
+    return testRestTemplate.getForObject(url("/event/" + eventId), Event.class);
+  }
+
+  private double replicaReads() {
+    return meterRegistry
+        .get("scoreboard.replica.reads")
+        .tag("source", "replica")
+        .functionCounter()
+        .count();
+  }
+
+  private String url(String path) {
+    return String.format("http://localhost:%d%s", port, path);
+  }
+}
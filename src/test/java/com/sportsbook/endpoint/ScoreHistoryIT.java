@@ -0,0 +1,149 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.ScoreHistoryEntry;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import com.sportsbook.service.ScoreHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "scoreboard.history.flush-interval-ms=3600000")
+@ActiveProfiles("test")
+public class ScoreHistoryIT {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  @Autowired private EventRepository eventRepository;
+
+  @Autowired private EventCache eventCache;
+
+  @Autowired private ScoreHistory scoreHistory;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @LocalServerPort private int port;
+
+  private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+  @BeforeEach
+  public void setUp() {
+    eventRepository.deleteAllInBatch();
+    jdbcTemplate.update("delete from scoreboard.score_history");
+    eventCache.reload();
+  }
+
+  @Test
+  void testEveryUpdateIsRecordedAndStaleOnesAreFlagged() {
+    UUID testEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+    UUID otherEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+    eventCache.reload();
+
+    String url = String.format("http://localhost:%d/event/%s", port, testEventId);
+    for (int minute : new int[] {10, 30, 20}) {
+      testRestTemplate.exchange(
+          url, HttpMethod.PUT, new HttpEntity<>(updateScore(minute)), Void.class);
+    }
+    testRestTemplate.exchange(
+        String.format("http://localhost:%d/event/scores", port),
+        HttpMethod.PUT,
+        new HttpEntity<>(
+            List.of(
+                eventScoreUpdate(testEventId, 40),
+                eventScoreUpdate(otherEventId, 5),
+                eventScoreUpdate(UUID.randomUUID(), 5))),
+        String.class);
+
+    // Nothing reaches the table until the queue is flushed
+    assertThat(getHistory(url + "/history")).isEmpty();
+    assertThat(scoreHistory.pendingCount()).isEqualTo(5);
+
+    scoreHistory.flush();
+
+    List<ScoreHistoryEntry> actualHistory = getHistory(url + "/history");
+    assertThat(actualHistory)
+        .extracting(ScoreHistoryEntry::getHomeTeamScore)
+        .containsExactly(10, 20, 30, 40);
+    assertThat(actualHistory)
+        .extracting(ScoreHistoryEntry::isStale)
+        .containsExactly(false, true, false, false);
+    assertThat(actualHistory.get(0).getScoreValidAtTimestamp()).isEqualTo(KICK_OFF.plusMinutes(10));
+    assertThat(actualHistory.get(0).getReceivedTimestamp()).isNotNull();
+    assertThat(actualHistory).extracting(ScoreHistoryEntry::getEventId).containsOnly(testEventId);
+  }
+
+  @Test
+  void testHistoryRangeAndLimit() {
+    UUID testEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+    eventCache.reload();
+
+    String url = String.format("http://localhost:%d/event/%s", port, testEventId);
+    for (int minute = 0; minute < 10; minute++) {
+      testRestTemplate.exchange(
+          url, HttpMethod.PUT, new HttpEntity<>(updateScore(minute)), Void.class);
+    }
+    scoreHistory.flush();
+
+    String range = "?from=" + KICK_OFF.plusMinutes(3) + "&to=" + KICK_OFF.plusMinutes(7);
+    List<ScoreHistoryEntry> inRange = getHistory(url + "/history" + range);
+    assertThat(inRange).extracting(ScoreHistoryEntry::getHomeTeamScore).containsExactly(3, 4, 5, 6);
+
+    List<ScoreHistoryEntry> limited =
+        getHistory(url + "/history?from=" + KICK_OFF.plusMinutes(5) + "&limit=2");
+    assertThat(limited).extracting(ScoreHistoryEntry::getHomeTeamScore).containsExactly(5, 6);
+
+    assertThat(
+            testRestTemplate
+                .getForEntity(url + "/history?limit=0", String.class)
+                .getStatusCode())
+        .isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(
+            testRestTemplate
+                .getForEntity(
+                    String.format("http://localhost:%d/event/%s/history", port, UUID.randomUUID()),
+                    String.class)
+                .getStatusCode())
+        .isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  private List<ScoreHistoryEntry> getHistory(String url) {
+    return List.of(testRestTemplate.getForObject(url, ScoreHistoryEntry[].class));
+  }
+
+  private static UpdateScore updateScore(int minute) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(minute);
+    updateScore.setScoreValidAtTimestamp(KICK_OFF.plusMinutes(minute));
+    return updateScore;
+  }
+
+  private static EventScoreUpdate eventScoreUpdate(UUID eventId, int minute) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(eventId);
+    update.setHomeTeamScore(minute);
+    update.setScoreValidAtTimestamp(KICK_OFF.plusMinutes(minute));
+    return update;
+  }
+}
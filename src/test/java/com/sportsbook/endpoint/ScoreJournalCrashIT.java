@@ -0,0 +1,235 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.Application;
+import com.sportsbook.model.dto.NewEvent;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import com.sportsbook.service.ScoreWriteBehind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kills an instance running write-behind with the journal while clients are sending score updates,
+ * then starts another on the same journal and checks that no acknowledged update was lost.
+ */
+public class ScoreJournalCrashIT {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+  private static final int EVENTS = 40;
+  private static final int CLIENTS = 8;
+
+  @TempDir Path journalDirectory;
+
+  private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+  private Process crashed;
+  private ConfigurableApplicationContext restarted;
+
+  @AfterEach
+  void tearDown() {
+    if (crashed != null) {
+      crashed.destroyForcibly();
+    }
+    if (restarted != null) {
+      restarted.close();
+    }
+  }
+
+  @Test
+  void testAcknowledgedUpdatesSurviveAKill() throws Exception {
+    int port = freePort();
+    crashed = startProcess(port);
+    String baseUrl = "http://localhost:" + port;
+    awaitStarted(baseUrl);
+
+    List<UUID> eventIds = createEvents(baseUrl);
+
+    // Each event is updated by one client, minute after minute, so the newest acknowledged minute
+    // is well defined
+    Map<UUID, Integer> acknowledged = new ConcurrentHashMap<>();
+    Map<UUID, Integer> sent = new ConcurrentHashMap<>();
+    AtomicInteger acknowledgements = new AtomicInteger();
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    for (int client = 0; client < CLIENTS; client++) {
+      List<UUID> own = new ArrayList<>();
+      for (int i = client; i < eventIds.size(); i += CLIENTS) {
+        own.add(eventIds.get(i));
+      }
+      clients.submit(() -> sendUntilRefused(baseUrl, own, sent, acknowledged, acknowledgements));
+    }
+
+    // Kill partway through, with updates in flight
+    while (acknowledgements.get() < 2_000) {
+      Thread.sleep(10);
+    }
+    crashed.destroyForcibly().waitFor();
+    clients.shutdown();
+    assertThat(clients.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    restarted = startInProcess();
+    EventRepository eventRepository = restarted.getBean(EventRepository.class);
+
+    String restartedUrl =
+        "http://localhost:" + restarted.getEnvironment().getProperty("local.server.port");
+    for (UUID eventId : eventIds) {
+      Event event = testRestTemplate.getForObject(restartedUrl + "/event/" + eventId, Event.class);
+      assertRecovered(event, acknowledged.get(eventId), sent.get(eventId));
+    }
+
+    restarted.getBean(ScoreWriteBehind.class).flush();
+    for (Event event : eventRepository.findAllById(eventIds)) {
+      assertRecovered(
+          event, acknowledged.get(event.getEventId()), sent.get(event.getEventId()));
+    }
+  }
+
+  // At least the last acknowledged update, and nothing that was never sent
+  private static void assertRecovered(Event event, Integer acknowledgedMinute, Integer sentMinute) {
+    if (acknowledgedMinute == null) {
+      return;
+    }
+    assertThat(event.getScoreLastUpdatedTimestamp())
+        .isBetween(KICK_OFF.plusMinutes(acknowledgedMinute), KICK_OFF.plusMinutes(sentMinute));
+    assertThat(event.getHomeTeamScore())
+        .isEqualTo(
+            (int) Duration.between(KICK_OFF, event.getScoreLastUpdatedTimestamp()).toMinutes());
+  }
+
+  private void sendUntilRefused(
+      String baseUrl,
+      List<UUID> eventIds,
+      Map<UUID, Integer> sent,
+      Map<UUID, Integer> acknowledged,
+      AtomicInteger acknowledgements) {
+    for (int minute = 1; ; minute++) {
+      for (UUID eventId : eventIds) {
+        sent.put(eventId, minute);
+        try {
+          ResponseEntity<Void> response =
+              testRestTemplate.exchange(
+                  baseUrl + "/event/" + eventId,
+                  HttpMethod.PUT,
+                  new HttpEntity<>(updateScore(minute)),
+                  Void.class);
+          if (response.getStatusCode() != HttpStatus.OK) {
+            return;
+          }
+        } catch (ResourceAccessException e) {
+          return;
+        }
+        acknowledged.put(eventId, minute);
+        acknowledgements.incrementAndGet();
+      }
+    }
+  }
+
+  private List<UUID> createEvents(String baseUrl) {
+    List<NewEvent> newEvents = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      NewEvent newEvent = new NewEvent();
+      newEvent.setMatchTitle("Match " + i);
+      newEvents.add(newEvent);
+    }
+    ResponseEntity<List<UUID>> response =
+        testRestTemplate.exchange(
+            baseUrl + "/event/bulk",
+            HttpMethod.POST,
+            new HttpEntity<>(newEvents),
+            new ParameterizedTypeReference<List<UUID>>() {});
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    return response.getBody();
+  }
+
+  private Process startProcess(int port) throws IOException {
+    Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+    List<String> command = new ArrayList<>();
+    command.add(java.toString());
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(Application.class.getName());
+    command.add("--server.port=" + port);
+    command.addAll(arguments());
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(Paths.get("target", "crashed-instance.log").toFile())
+        .start();
+  }
+
+  private ConfigurableApplicationContext startInProcess() {
+    List<String> args = new ArrayList<>(arguments());
+    args.add("--server.port=0");
+    return new SpringApplicationBuilder(Application.class).run(args.toArray(new String[0]));
+  }
+
+  // Beyond the flush at startup, neither instance flushes on its own within the test
+  private List<String> arguments() {
+    return List.of(
+        "--spring.profiles.active=test",
+        "--management.server.port=0",
+        "--scoreboard.write-behind.enabled=true",
+        "--scoreboard.write-behind.flush-interval-ms=3600000",
+        "--scoreboard.write-behind.journal.enabled=true",
+        "--scoreboard.write-behind.journal.directory=" + journalDirectory,
+        "--scoreboard.history.enabled=false");
+  }
+
+  private void awaitStarted(String baseUrl) throws InterruptedException {
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (true) {
+      assertThat(crashed.isAlive()).as("The instance exited while starting").isTrue();
+      try {
+        testRestTemplate.getForEntity(baseUrl + "/event?limit=1", String.class);
+        return;
+      } catch (ResourceAccessException e) {
+        assertThat(System.nanoTime()).as("Timed out starting the instance").isLessThan(deadline);
+        Thread.sleep(200);
+      }
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static UpdateScore updateScore(int minute) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(minute);
+    updateScore.setAwayTeamScore(0);
+    updateScore.setScoreValidAtTimestamp(KICK_OFF.plusMinutes(minute));
+    return updateScore;
+  }
+}
@@ -0,0 +1,72 @@
+package com.sportsbook.endpoint;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import com.sportsbook.service.ScoreWriteBehind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "scoreboard.write-behind.enabled=true",
+      "scoreboard.write-behind.flush-interval-ms=3600000"
+    })
+@ActiveProfiles("test")
+public class ScoreWriteBehindIT {
+
+  @Autowired private EventRepository eventRepository;
+
+  @Autowired private EventCache eventCache;
+
+  @Autowired private ScoreWriteBehind scoreWriteBehind;
+
+  @LocalServerPort private int port;
+
+  @BeforeEach
+  public void setUp() {
+    eventRepository.deleteAllInBatch();
+    eventCache.reload();
+  }
+
+  @Test
+  void testUpdatesAreReadableAtOnceAndWrittenOnFlush() {
+    UUID testEventId = eventRepository.saveAndFlush(new Event()).getEventId();
+    LocalDateTime kickOff = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+    String url = String.format("http://localhost:%d/event/%s", port, testEventId);
+    for (int minute : new int[] {10, 30, 20}) {
+      UpdateScore testUpdateScore = new UpdateScore();
+      testUpdateScore.setHomeTeamScore(minute);
+      testUpdateScore.setScoreValidAtTimestamp(kickOff.plusMinutes(minute));
+      testRestTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(testUpdateScore), Void.class);
+    }
+
+    assertThat(testRestTemplate.getForObject(url, Event.class).getHomeTeamScore()).isEqualTo(30);
+    assertThat(eventRepository.findById(testEventId).get().getHomeTeamScore()).isZero();
+
+    scoreWriteBehind.flush();
+
+    Event actualEvent = eventRepository.findById(testEventId).get();
+    assertThat(actualEvent.getHomeTeamScore()).isEqualTo(30);
+    assertThat(actualEvent.getScoreLastUpdatedTimestamp()).isEqualTo(kickOff.plusMinutes(30));
+  }
+}
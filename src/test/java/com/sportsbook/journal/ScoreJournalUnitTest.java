@@ -0,0 +1,158 @@
+package com.sportsbook.journal;
+
+import com.sportsbook.model.dto.EventScoreUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreJournalUnitTest {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  @TempDir Path directory;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void testRecoversWhatAnEarlierRunAppended() throws IOException {
+    UUID eventId = UUID.randomUUID();
+    ScoreJournal journal = new ScoreJournal(directory, meterRegistry);
+    for (int minute = 1; minute <= 3; minute++) {
+      journal.awaitDurable(journal.append(update(eventId, minute)));
+    }
+    // No close, as if the process had died
+    ScoreJournal restarted = new ScoreJournal(directory, meterRegistry);
+
+    List<EventScoreUpdate> recovered = restarted.recover();
+    assertThat(recovered)
+        .containsExactly(update(eventId, 1), update(eventId, 2), update(eventId, 3));
+    assertThat(meterRegistry.counter("scoreboard.write_behind.journal.recovered").count())
+        .isEqualTo(3.0);
+  }
+
+  @Test
+  void testDropsARecordTornByACrash() throws IOException {
+    UUID eventId = UUID.randomUUID();
+    ScoreJournal journal = new ScoreJournal(directory, meterRegistry);
+    journal.append(update(eventId, 1));
+    journal.append(update(eventId, 2));
+    journal.close();
+    Path segment = onlySegment();
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.truncate(ScoreJournal.RECORD_SIZE + 10);
+    }
+
+    assertThat(new ScoreJournal(directory, meterRegistry).recover())
+        .containsExactly(update(eventId, 1));
+  }
+
+  @Test
+  void testStopsAtACorruptRecord() throws IOException {
+    UUID eventId = UUID.randomUUID();
+    ScoreJournal journal = new ScoreJournal(directory, meterRegistry);
+    for (int minute = 1; minute <= 3; minute++) {
+      journal.append(update(eventId, minute));
+    }
+    journal.close();
+    Path segment = onlySegment();
+    byte[] bytes = Files.readAllBytes(segment);
+    bytes[ScoreJournal.RECORD_SIZE + 20] ^= 1;
+    Files.write(segment, bytes);
+
+    assertThat(new ScoreJournal(directory, meterRegistry).recover())
+        .containsExactly(update(eventId, 1));
+  }
+
+  @Test
+  void testDeletedSegmentsAreNotRecovered() throws IOException {
+    UUID eventId = UUID.randomUUID();
+    ScoreJournal journal = new ScoreJournal(directory, meterRegistry);
+    journal.append(update(eventId, 1));
+    List<Path> flushed = journal.rollOver();
+    journal.append(update(eventId, 2));
+    journal.delete(flushed);
+    journal.close();
+
+    assertThat(new ScoreJournal(directory, meterRegistry).recover())
+        .containsExactly(update(eventId, 2));
+  }
+
+  @Test
+  void testConcurrentWritersAreAllDurable() throws Exception {
+    ScoreJournal journal = new ScoreJournal(directory, meterRegistry);
+    int writers = 8;
+    int updatesPerWriter = 200;
+
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < writers; i++) {
+        UUID eventId = UUID.randomUUID();
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int minute = 1; minute <= updatesPerWriter; minute++) {
+                    journal.awaitDurable(journal.append(update(eventId, minute)));
+                    if (minute == updatesPerWriter / 2) {
+                      journal.rollOver();
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    List<EventScoreUpdate> recovered = new ScoreJournal(directory, meterRegistry).recover();
+    assertThat(recovered).hasSize(writers * updatesPerWriter);
+    // Each writer's updates come back in the order it appended them
+    recovered.stream()
+        .collect(Collectors.groupingBy(EventScoreUpdate::getEventId))
+        .values()
+        .forEach(
+            updates ->
+                assertThat(updates)
+                    .extracting(EventScoreUpdate::getScoreValidAtTimestamp)
+                    .isSorted());
+    assertThat(meterRegistry.counter("scoreboard.write_behind.journal.syncs").count())
+        .isLessThanOrEqualTo(writers * updatesPerWriter);
+  }
+
+  private Path onlySegment() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      List<Path> segments = files.sorted().collect(Collectors.toList());
+      // The journal opens a fresh segment on start, so the one written to is the first
+      return segments.get(0);
+    }
+  }
+
+  private static EventScoreUpdate update(UUID eventId, int minute) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(eventId);
+    update.setHomeTeamScore(minute);
+    update.setAwayTeamScore(0);
+    update.setScoreValidAtTimestamp(KICK_OFF.plusMinutes(minute));
+    return update;
+  }
+}
@@ -0,0 +1,107 @@
+package com.sportsbook.service;
+
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.repository.ReactiveEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveScoreServiceUnitTest {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  @Mock private ReactiveEventRepository eventRepository;
+
+  @Mock private ReactiveTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final UUID testEventId = UUID.randomUUID();
+
+  private final UUID unknownEventId = UUID.randomUUID();
+
+  private ReactiveScoreService underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new ReactiveScoreService(eventRepository, transactionManager, meterRegistry);
+  }
+
+  @Test
+  void testUpdateScoreResults() {
+    // Given
+    when(eventRepository.updateScoreIfNewer(eq(testEventId), any(UpdateScore.class)))
+        .thenReturn(Mono.just(true), Mono.just(false));
+    when(eventRepository.updateScoreIfNewer(eq(unknownEventId), any(UpdateScore.class)))
+        .thenReturn(Mono.just(false));
+    when(eventRepository.existsById(testEventId)).thenReturn(Mono.just(true));
+    when(eventRepository.existsById(unknownEventId)).thenReturn(Mono.just(false));
+
+    // When
+    ScoreUpdateResult applied = underTest.updateScore(testEventId, updateScore()).block();
+    ScoreUpdateResult stale = underTest.updateScore(testEventId, updateScore()).block();
+    ScoreUpdateResult notFound = underTest.updateScore(unknownEventId, updateScore()).block();
+
+    // Then
+    assertThat(applied).isEqualTo(ScoreUpdateResult.APPLIED);
+    assertThat(stale).isEqualTo(ScoreUpdateResult.STALE);
+    assertThat(notFound).isEqualTo(ScoreUpdateResult.NOT_FOUND);
+    assertThat(meterRegistry.counter("scoreboard.score.updates", "result", "stale").count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void testUpdateScoresInOneTransaction() {
+    // Given
+    ReactiveTransaction transaction = mock(ReactiveTransaction.class);
+    when(transactionManager.getReactiveTransaction(any())).thenReturn(Mono.just(transaction));
+    when(transactionManager.commit(transaction)).thenReturn(Mono.empty());
+    when(eventRepository.updateScoreIfNewer(eq(testEventId), any(UpdateScore.class)))
+        .thenReturn(Mono.just(true), Mono.just(false));
+    when(eventRepository.existsById(testEventId)).thenReturn(Mono.just(true));
+
+    // When
+    List<ScoreUpdateOutcome> actualOutcomes =
+        underTest.updateScores(List.of(eventScoreUpdate(), eventScoreUpdate())).block();
+
+    // Then
+    assertThat(actualOutcomes)
+        .containsExactly(
+            new ScoreUpdateOutcome(testEventId, ScoreUpdateResult.APPLIED),
+            new ScoreUpdateOutcome(testEventId, ScoreUpdateResult.STALE));
+    verify(transactionManager).getReactiveTransaction(any());
+    verify(transactionManager).commit(transaction);
+  }
+
+  private static UpdateScore updateScore() {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setScoreValidAtTimestamp(KICK_OFF);
+    return updateScore;
+  }
+
+  private EventScoreUpdate eventScoreUpdate() {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(testEventId);
+    update.setScoreValidAtTimestamp(KICK_OFF);
+    return update;
+  }
+}
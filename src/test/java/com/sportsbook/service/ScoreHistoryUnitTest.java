@@ -0,0 +1,143 @@
+package com.sportsbook.service;
+
+import com.sportsbook.model.dto.ScoreHistoryEntry;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.repository.ScoreHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreHistoryUnitTest {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  @Mock private ScoreHistoryRepository scoreHistoryRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final UUID testEventId = UUID.randomUUID();
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testWritesQueuedEntriesInBatches() throws Exception {
+    // Given
+    ScoreHistory underTest = new ScoreHistory(scoreHistoryRepository, meterRegistry, 100, 2);
+    List<List<ScoreHistoryEntry>> batches = new ArrayList<>();
+    when(scoreHistoryRepository.appendAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<ScoreHistoryEntry> batch = invocation.getArgument(0);
+              batches.add(new ArrayList<>(batch));
+              return (long) batch.size();
+            });
+
+    // When
+    underTest.record(testEventId, updateScore(1), ScoreUpdateResult.APPLIED);
+    underTest.record(testEventId, updateScore(0), ScoreUpdateResult.STALE);
+    underTest.record(testEventId, updateScore(2), ScoreUpdateResult.APPLIED);
+    underTest.record(UUID.randomUUID(), updateScore(3), ScoreUpdateResult.NOT_FOUND);
+    underTest.flush();
+
+    // Then
+    assertThat(batches).hasSize(2);
+    assertThat(batches.get(0)).extracting(ScoreHistoryEntry::isStale).containsExactly(false, true);
+    assertThat(batches.get(1)).extracting(ScoreHistoryEntry::getHomeTeamScore).containsExactly(2);
+    assertThat(underTest.pendingCount()).isZero();
+    assertThat(meterRegistry.counter("scoreboard.history.rows.written").count()).isEqualTo(3);
+  }
+
+  @Test
+  void testDropsEntriesWhenQueueIsFull() {
+    // Given
+    ScoreHistory underTest = new ScoreHistory(scoreHistoryRepository, meterRegistry, 2, 100);
+
+    // When
+    for (int minute = 0; minute < 5; minute++) {
+      underTest.record(testEventId, updateScore(minute), ScoreUpdateResult.APPLIED);
+    }
+
+    // Then
+    assertThat(underTest.pendingCount()).isEqualTo(2);
+    assertThat(meterRegistry.counter("scoreboard.history.rows.dropped").count()).isEqualTo(3);
+    verifyNoInteractions(scoreHistoryRepository);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testKeepsEntriesWhenWriteFails() throws Exception {
+    // Given
+    ScoreHistory underTest = new ScoreHistory(scoreHistoryRepository, meterRegistry, 100, 100);
+    List<ScoreHistoryEntry> written = new ArrayList<>();
+    when(scoreHistoryRepository.appendAll(anyList()))
+        .thenThrow(new SQLException("connection refused"))
+        .thenAnswer(
+            invocation -> {
+              written.addAll(invocation.getArgument(0));
+              return (long) written.size();
+            });
+    underTest.record(testEventId, updateScore(1), ScoreUpdateResult.APPLIED);
+    underTest.record(testEventId, updateScore(2), ScoreUpdateResult.APPLIED);
+
+    // When
+    underTest.flush();
+    int pendingAfterFailure = underTest.pendingCount();
+    underTest.flush();
+
+    // Then
+    assertThat(pendingAfterFailure).isEqualTo(2);
+    assertThat(underTest.pendingCount()).isZero();
+    assertThat(written).extracting(ScoreHistoryEntry::getHomeTeamScore).containsExactly(1, 2);
+    verify(scoreHistoryRepository, times(2)).appendAll(anyList());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testDropsOnlyRowsPostgresRejects() throws Exception {
+    // Given a batch in which Postgres rejects one row
+    ScoreHistory underTest = new ScoreHistory(scoreHistoryRepository, meterRegistry, 100, 100);
+    List<ScoreHistoryEntry> written = new ArrayList<>();
+    when(scoreHistoryRepository.appendAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<ScoreHistoryEntry> batch = invocation.getArgument(0);
+              if (batch.stream().anyMatch(entry -> entry.getHomeTeamScore() == 3)) {
+                throw new SQLException("null value in column \"score_valid_at\"", "23502");
+              }
+              written.addAll(batch);
+              return (long) batch.size();
+            });
+    for (int minute = 1; minute <= 5; minute++) {
+      underTest.record(testEventId, updateScore(minute), ScoreUpdateResult.APPLIED);
+    }
+
+    // When
+    underTest.flush();
+
+    // Then
+    assertThat(underTest.pendingCount()).isZero();
+    assertThat(written).extracting(ScoreHistoryEntry::getHomeTeamScore).containsExactly(1, 2, 4, 5);
+    assertThat(meterRegistry.counter("scoreboard.history.rows.dropped").count()).isEqualTo(1);
+    assertThat(meterRegistry.counter("scoreboard.history.rows.written").count()).isEqualTo(4);
+  }
+
+  private static UpdateScore updateScore(int minute) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(minute);
+    updateScore.setScoreValidAtTimestamp(KICK_OFF.plusMinutes(minute));
+    return updateScore;
+  }
+}
@@ -0,0 +1,357 @@
+package com.sportsbook.service;
+
+import com.sportsbook.cache.EventCache;
+import com.sportsbook.change.EventChangePublisher;
+import com.sportsbook.journal.ScoreJournal;
+import com.sportsbook.model.dto.EventScoreUpdate;
+import com.sportsbook.model.dto.ScoreUpdateOutcome;
+import com.sportsbook.model.dto.ScoreUpdateResult;
+import com.sportsbook.model.dto.UpdateScore;
+import com.sportsbook.model.entity.Event;
+import com.sportsbook.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreWriteBehindUnitTest {
+
+  private static final LocalDateTime KICK_OFF = LocalDateTime.of(2021, 8, 3, 15, 0);
+
+  @Mock private EventRepository eventRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final UUID testEventId = UUID.randomUUID();
+
+  private EventCache eventCache;
+
+  private ScoreWriteBehind underTest;
+
+  private ScoreService scoreService;
+
+  private ScoreWriteBehind journalledWriteBehind;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    Event testEvent = new Event();
+    testEvent.setEventId(testEventId);
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<Event>>getArgument(0).accept(testEvent);
+              return null;
+            })
+        .when(eventRepository)
+        .forEachEvent(any(Consumer.class));
+
+    eventCache =
+        new EventCache(
+            eventRepository, Jackson2ObjectMapperBuilder.json().build(), meterRegistry, true);
+    eventCache.reload();
+
+    underTest =
+        new ScoreWriteBehind(
+            eventRepository, eventCache, Optional.empty(), transactionManager, meterRegistry, 500);
+    scoreService =
+        new ScoreService(
+            eventRepository,
+            new EventLocks(),
+            new EventChangePublisher(eventCache, event -> {}),
+            transactionManager,
+            Optional.of(underTest),
+            Optional.empty(),
+            meterRegistry,
+            false);
+  }
+
+  @Test
+  void testCoalescesUpdatesToNewestScore() {
+    // Given
+    Event storedEvent = new Event();
+    storedEvent.setEventId(testEventId);
+    when(eventRepository.findAllById(Set.of(testEventId))).thenReturn(List.of(storedEvent));
+
+    // When
+    assertThat(scoreService.updateScore(testEventId, updateScore(1, KICK_OFF.plusMinutes(10))))
+        .isEqualTo(ScoreUpdateResult.APPLIED);
+    assertThat(scoreService.updateScore(testEventId, updateScore(3, KICK_OFF.plusMinutes(30))))
+        .isEqualTo(ScoreUpdateResult.APPLIED);
+    assertThat(scoreService.updateScore(testEventId, updateScore(2, KICK_OFF.plusMinutes(20))))
+        .isEqualTo(ScoreUpdateResult.STALE);
+
+    // Then the newest score is readable before it has been written
+    assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isEqualTo(3);
+    assertThat(underTest.pendingCount()).isEqualTo(1);
+    verify(eventRepository, never()).saveAndFlush(any());
+
+    underTest.flush();
+
+    verify(eventRepository).saveAll(List.of(storedEvent));
+    assertThat(storedEvent.getHomeTeamScore()).isEqualTo(3);
+    assertThat(storedEvent.getScoreLastUpdatedTimestamp()).isEqualTo(KICK_OFF.plusMinutes(30));
+    assertThat(underTest.pendingCount()).isZero();
+    assertThat(meterRegistry.counter("scoreboard.write_behind.updates.received").count())
+        .isEqualTo(3);
+    assertThat(meterRegistry.counter("scoreboard.write_behind.rows.written").count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void testUnknownEventIsNotAccepted() {
+    UUID unknownEventId = UUID.randomUUID();
+
+    assertThat(scoreService.updateScore(unknownEventId, updateScore(1, KICK_OFF)))
+        .isEqualTo(ScoreUpdateResult.NOT_FOUND);
+    assertThat(underTest.pendingCount()).isZero();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testFailedFlushIsRetriedWithoutLosingNewerUpdates() {
+    // Given
+    Event storedEvent = new Event();
+    storedEvent.setEventId(testEventId);
+    when(eventRepository.findAllById(Set.of(testEventId))).thenReturn(List.of(storedEvent));
+    when(eventRepository.saveAll(anyList()))
+        .thenThrow(new IllegalStateException("database unavailable"))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    scoreService.updateScore(testEventId, updateScore(1, KICK_OFF.plusMinutes(10)));
+
+    // When
+    underTest.flush();
+    assertThat(underTest.pendingCount()).isEqualTo(1);
+
+    scoreService.updateScore(testEventId, updateScore(2, KICK_OFF.plusMinutes(20)));
+    underTest.flush();
+
+    // Then
+    ArgumentCaptor<List<Event>> written = ArgumentCaptor.forClass(List.class);
+    verify(eventRepository, times(2)).saveAll(written.capture());
+    assertThat(written.getValue()).hasSize(1);
+    assertThat(storedEvent.getHomeTeamScore()).isEqualTo(2);
+    assertThat(underTest.pendingCount()).isZero();
+  }
+
+  @Test
+  void testJournalledUpdatesAreReplayedOnRestartUnlessStale(@TempDir Path directory)
+      throws IOException {
+    // Given a run that journalled two updates and died before flushing the second
+    ScoreJournal journal = new ScoreJournal(directory, meterRegistry);
+    ScoreWriteBehind crashed =
+        new ScoreWriteBehind(
+            eventRepository,
+            eventCache,
+            Optional.of(journal),
+            transactionManager,
+            meterRegistry,
+            500);
+    crashed.accept(testEventId, updateScore(1, KICK_OFF.plusMinutes(10)), new AtomicReference<>());
+    crashed.accept(testEventId, updateScore(2, KICK_OFF.plusMinutes(20)), new AtomicReference<>());
+    crashed.awaitDurable();
+
+    // And the database already holds the first, as if a flush had committed it
+    Event flushed = eventCache.findById(testEventId).get().copy();
+    flushed.setHomeTeamScore(1);
+    flushed.setScoreLastUpdatedTimestamp(KICK_OFF.plusMinutes(10));
+    eventCache.put(flushed);
+
+    // When
+    ScoreWriteBehind restarted =
+        new ScoreWriteBehind(
+            eventRepository,
+            eventCache,
+            Optional.of(new ScoreJournal(directory, meterRegistry)),
+            transactionManager,
+            meterRegistry,
+            500);
+    restarted.recover();
+
+    // Then only the update the database missed is pending again
+    assertThat(restarted.pendingCount()).isEqualTo(1);
+    assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isEqualTo(2);
+
+    Event storedEvent = flushed.copy();
+    when(eventRepository.findAllById(Set.of(testEventId))).thenReturn(List.of(storedEvent));
+    restarted.flush();
+
+    assertThat(storedEvent.getHomeTeamScore()).isEqualTo(2);
+    assertThat(storedEvent.getScoreLastUpdatedTimestamp()).isEqualTo(KICK_OFF.plusMinutes(20));
+    assertThat(new ScoreJournal(directory, meterRegistry).recover()).isEmpty();
+  }
+
+  @Test
+  void testSingleUpdateIsPublishedOnlyOnceJournalled() throws IOException {
+    // Given
+    ScoreJournal journal = mock(ScoreJournal.class);
+    List<Object> published = new ArrayList<>();
+    ScoreService journalled = scoreServiceWith(journal, published);
+    doAnswer(
+            invocation -> {
+              assertThat(published).isEmpty();
+              assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isZero();
+              return null;
+            })
+        .when(journal)
+        .awaitDurable(anyLong());
+
+    // When
+    ScoreUpdateResult result =
+        journalled.updateScore(testEventId, updateScore(1, KICK_OFF.plusMinutes(10)));
+
+    // Then
+    assertThat(result).isEqualTo(ScoreUpdateResult.APPLIED);
+    verify(journal).awaitDurable(anyLong());
+    assertThat(published).hasSize(1);
+    assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isEqualTo(1);
+  }
+
+  @Test
+  void testBatchIsPublishedOnlyOnceJournalled() throws IOException {
+    // Given
+    ScoreJournal journal = mock(ScoreJournal.class);
+    List<Object> published = new ArrayList<>();
+    ScoreService journalled = scoreServiceWith(journal, published);
+    doAnswer(
+            invocation -> {
+              assertThat(published).isEmpty();
+              assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isZero();
+              return null;
+            })
+        .when(journal)
+        .awaitDurable(anyLong());
+
+    // When
+    List<ScoreUpdateOutcome> outcomes =
+        journalled.updateScores(
+            List.of(
+                eventScoreUpdate(1, KICK_OFF.plusMinutes(10)),
+                eventScoreUpdate(3, KICK_OFF.plusMinutes(30)),
+                eventScoreUpdate(2, KICK_OFF.plusMinutes(20))));
+
+    // Then each update was checked against the one before it in the batch
+    assertThat(outcomes)
+        .extracting(ScoreUpdateOutcome::getResult)
+        .containsExactly(
+            ScoreUpdateResult.APPLIED, ScoreUpdateResult.APPLIED, ScoreUpdateResult.STALE);
+    verify(journal).awaitDurable(anyLong());
+    assertThat(published).hasSize(1);
+    assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isEqualTo(3);
+    assertThat(journalledWriteBehind.pendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testSingleUpdateIsTakenBackWhenTheJournalCannotSync() throws IOException {
+    // Given
+    ScoreJournal journal = mock(ScoreJournal.class);
+    List<Object> published = new ArrayList<>();
+    ScoreService journalled = scoreServiceWith(journal, published);
+    doThrow(new IOException("disk full")).when(journal).awaitDurable(anyLong());
+
+    // When
+    assertThatThrownBy(
+            () -> journalled.updateScore(testEventId, updateScore(1, KICK_OFF.plusMinutes(10))))
+        .isInstanceOf(UncheckedIOException.class);
+
+    // Then
+    assertThat(published).isEmpty();
+    assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isZero();
+    assertThat(journalledWriteBehind.pendingCount()).isZero();
+  }
+
+  @Test
+  void testBatchIsTakenBackWhenTheJournalCannotSync() throws IOException {
+    // Given a score that was journalled but has not been flushed yet
+    ScoreJournal journal = mock(ScoreJournal.class);
+    List<Object> published = new ArrayList<>();
+    ScoreService journalled = scoreServiceWith(journal, published);
+    journalled.updateScore(testEventId, updateScore(1, KICK_OFF.plusMinutes(10)));
+    doThrow(new IOException("disk full")).when(journal).awaitDurable(anyLong());
+
+    // When
+    assertThatThrownBy(
+            () ->
+                journalled.updateScores(
+                    List.of(
+                        eventScoreUpdate(2, KICK_OFF.plusMinutes(20)),
+                        eventScoreUpdate(3, KICK_OFF.plusMinutes(30)))))
+        .isInstanceOf(UncheckedIOException.class);
+
+    // Then only the earlier score is published and written
+    assertThat(published).hasSize(1);
+    assertThat(eventCache.findById(testEventId).get().getHomeTeamScore()).isEqualTo(1);
+
+    Event storedEvent = new Event();
+    storedEvent.setEventId(testEventId);
+    when(eventRepository.findAllById(Set.of(testEventId))).thenReturn(List.of(storedEvent));
+    journalledWriteBehind.flush();
+
+    assertThat(storedEvent.getHomeTeamScore()).isEqualTo(1);
+    assertThat(storedEvent.getScoreLastUpdatedTimestamp()).isEqualTo(KICK_OFF.plusMinutes(10));
+  }
+
+  private ScoreService scoreServiceWith(ScoreJournal journal, List<Object> published) {
+    journalledWriteBehind =
+        new ScoreWriteBehind(
+            eventRepository,
+            eventCache,
+            Optional.of(journal),
+            transactionManager,
+            meterRegistry,
+            500);
+    return new ScoreService(
+        eventRepository,
+        new EventLocks(),
+        new EventChangePublisher(eventCache, published::add),
+        transactionManager,
+        Optional.of(journalledWriteBehind),
+        Optional.empty(),
+        meterRegistry,
+        false);
+  }
+
+  private EventScoreUpdate eventScoreUpdate(
+      int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    EventScoreUpdate update = new EventScoreUpdate();
+    update.setEventId(testEventId);
+    update.setHomeTeamScore(homeTeamScore);
+    update.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return update;
+  }
+
+  private static UpdateScore updateScore(int homeTeamScore, LocalDateTime scoreValidAtTimestamp) {
+    UpdateScore updateScore = new UpdateScore();
+    updateScore.setHomeTeamScore(homeTeamScore);
+    updateScore.setScoreValidAtTimestamp(scoreValidAtTimestamp);
+    return updateScore;
+  }
+}